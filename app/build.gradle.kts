@@ -16,6 +16,10 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Only the benchmark build type talks to the local Firebase emulators
+        buildConfigField("boolean", "USE_FIREBASE_EMULATORS", "false")
+        buildConfigField("String", "FIREBASE_EMULATOR_HOST", "\"${firebaseEmulatorHost()}\"")
     }
 
     buildTypes {
@@ -26,6 +30,14 @@ android {
                 "proguard-rules.pro"
             )
         }
+        // Release-like build for :macrobenchmark, backed by emulators seeded with fixture data
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+            isDebuggable = false
+            buildConfigField("boolean", "USE_FIREBASE_EMULATORS", "true")
+        }
     }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_17
@@ -34,13 +46,18 @@ android {
     
     buildFeatures {
         viewBinding = true
+        buildConfig = true
     }
 }
 
 dependencies {
+    // Firestore models and their codecs
+    implementation(project(":model"))
+
     // Firebase BoM
     implementation(platform("com.google.firebase:firebase-bom:33.1.2"))
     implementation("com.google.firebase:firebase-crashlytics")
+    implementation("com.google.firebase:firebase-perf")
     implementation("com.google.firebase:firebase-analytics")
     implementation("com.google.firebase:firebase-auth")
     implementation("com.google.firebase:firebase-firestore")
@@ -54,16 +71,33 @@ dependencies {
     implementation("androidx.recyclerview:recyclerview:1.3.2")
     implementation("androidx.cardview:cardview:1.0.0")
     implementation("androidx.fragment:fragment:1.7.1")
+    // LocationManagerCompat.getCurrentLocation with a platform CancellationSignal
+    implementation("androidx.core:core:1.13.1")
+    // Trace sections read by the chat macrobenchmark
+    implementation("androidx.tracing:tracing:1.2.0")
     
     // Swipe to Refresh
     implementation("androidx.swiperefreshlayout:swiperefreshlayout:1.1.0")
     // Glide
     implementation("com.github.bumptech.glide:glide:4.16.0")
+    implementation("com.github.bumptech.glide:recyclerview-integration:4.16.0") {
+        // Only the preloader is needed; the app already pins its own recyclerview
+        isTransitive = false
+    }
 
     annotationProcessor("com.github.bumptech.glide:compiler:4.16.0")
 
+    // Room (local mirror of Firestore data)
+    implementation(libs.room.runtime)
+    annotationProcessor(libs.room.compiler)
+
     // Testing
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
-}
\ No newline at end of file
+}
+
+// 10.0.2.2 is the host machine as seen from the Android emulator; pass
+// -PfirebaseEmulatorHost=... when benchmarking on a physical device
+fun firebaseEmulatorHost(): String =
+    (findProperty("firebaseEmulatorHost") as String?) ?: "10.0.2.2"
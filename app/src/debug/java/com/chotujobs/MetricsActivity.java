@@ -0,0 +1,76 @@
+package com.chotujobs;
+
+import android.os.Bundle;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.chotujobs.databinding.ActivityMetricsBinding;
+import com.chotujobs.services.FirestoreMetrics;
+
+import java.util.List;
+import java.util.Locale;
+
+// Debug builds only: what each FirestoreService operation has cost in this process so far
+public class MetricsActivity extends AppCompatActivity {
+
+    private ActivityMetricsBinding binding;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityMetricsBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        binding.refreshButton.setOnClickListener(v -> render());
+        binding.resetButton.setOnClickListener(v -> {
+            FirestoreMetrics.getInstance().reset();
+            render();
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        render();
+    }
+
+    private void render() {
+        List<FirestoreMetrics.OperationStats> stats = FirestoreMetrics.getInstance().getStats();
+        // Heaviest readers first, which is where N+1 patterns show up
+        stats.sort((a, b) -> Long.compare(b.getDocumentsRead(), a.getDocumentsRead()));
+
+        long reads = 0;
+        long writes = 0;
+        long failures = 0;
+        long[] bounds = FirestoreMetrics.getBucketUpperBoundsMs();
+        StringBuilder text = new StringBuilder();
+        for (FirestoreMetrics.OperationStats operation : stats) {
+            reads += operation.getDocumentsRead();
+            writes += operation.getDocumentsWritten();
+            failures += operation.getFailures();
+
+            text.append(operation.getOperation()).append('\n');
+            text.append(String.format(Locale.ROOT, "  calls %d  failed %d  read %d  written %d%n",
+                    operation.getCalls(), operation.getFailures(), operation.getDocumentsRead(), operation.getDocumentsWritten()));
+            text.append(String.format(Locale.ROOT, "  cache %d  server %d  mean %dms  p95 %s  max %dms%n",
+                    operation.getCacheHits(), operation.getServerHits(), operation.getMeanLatencyMs(),
+                    formatBound(operation.getLatencyPercentileMs(95), bounds), operation.getMaxLatencyMs()));
+            long[] buckets = operation.getLatencyBuckets();
+            text.append("  ");
+            for (int i = 0; i < buckets.length; i++) {
+                String label = i < bounds.length ? "<" + bounds[i] : ">=" + bounds[bounds.length - 1];
+                text.append(label).append(':').append(buckets[i]).append(' ');
+            }
+            text.append("\n\n");
+        }
+
+        binding.totalsTextView.setText(String.format(Locale.ROOT, "Reads %d · Writes %d · Failures %d", reads, writes, failures));
+        binding.metricsTextView.setText(stats.isEmpty() ? "No Firestore calls yet" : text.toString());
+    }
+
+    private static String formatBound(long boundMs, long[] bounds) {
+        if (boundMs < 0) return "-";
+        if (boundMs == Long.MAX_VALUE) return ">=" + bounds[bounds.length - 1] + "ms";
+        return "<" + boundMs + "ms";
+    }
+}
@@ -4,46 +4,113 @@ import android.os.Bundle;
 import android.view.View;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.tracing.Trace;
 
 import com.chotujobs.adapters.MessagesAdapter;
+import com.chotujobs.data.DataRepository;
+import com.chotujobs.data.MessageOutbox;
 import com.chotujobs.databinding.ActivityChatBinding;
 import com.chotujobs.models.Message;
+import com.chotujobs.services.FirestoreMetrics;
 import com.chotujobs.services.FirestoreService;
 import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ChatActivity extends AppCompatActivity {
 
+    private static final int PAGE_SIZE = FirestoreService.DEFAULT_MESSAGE_PAGE_SIZE;
+    // Older pages are requested when the user scrolls within this many items of the top
+    private static final int LOAD_OLDER_THRESHOLD = 5;
+    // Once the user is back at the bottom, history beyond this many messages is dropped
+    private static final int MAX_WINDOW_SIZE = PAGE_SIZE * 4;
+    // Open from onCreate until the first message is on screen; measured by the chat macrobenchmark
+    private static final String FIRST_MESSAGE_SECTION = "ChatActivity.firstMessage";
+
     private ActivityChatBinding binding;
     private MessagesAdapter adapter;
     private List<Message> messageList;
+    // Message id -> position in messageList, so each DocumentChange is applied without scanning the list
+    private final Map<String, Integer> messageIndex = new HashMap<>();
+    // Sent from this device but not yet seen in a snapshot; shown after messageList, in send order
+    private final Map<String, Message> pendingMessages = new LinkedHashMap<>();
     private FirestoreService firestoreService;
+    private DataRepository repository;
+    private MessageOutbox outbox;
     private String chatId;
     private String receiverId;
     private ListenerRegistration messageListener;
+    private LinearLayoutManager layoutManager;
+    private boolean isLoadingOlder = false;
+    private boolean hasOlderMessages = false;
+    private boolean windowSettled = false;
+    private boolean messagesDelivered = false;
+    private boolean firstMessageTraced = false;
+    // The other user's messages arrived since the chat was marked read, each adding to its unread count
+    private boolean receivedSinceMarkedRead = false;
+
+    // The outbox gave up on these; flag them on screen so they can be retried or discarded
+    private final MessageOutbox.OnMessagesFailedListener failedListener = (failedChatId, messageIds) -> {
+        if (!failedChatId.equals(chatId)) return;
+        boolean shown = false;
+        for (String messageId : messageIds) {
+            Message message = pendingMessages.get(messageId);
+            if (message != null) {
+                pendingMessages.put(messageId, withFailed(message, true));
+                shown = true;
+            }
+        }
+        if (shown) {
+            submitMessages(null);
+            Toast.makeText(this, "Message not sent. Tap it to retry", Toast.LENGTH_LONG).show();
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        Trace.beginAsyncSection(FIRST_MESSAGE_SECTION, 0);
         binding = ActivityChatBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
         firestoreService = FirestoreService.getInstance();
+        repository = DataRepository.getInstance(this);
+        outbox = MessageOutbox.getInstance(this);
         chatId = getIntent().getStringExtra("chatId");
         receiverId = getIntent().getStringExtra("receiverId");
 
         messageList = new ArrayList<>();
-        adapter = new MessagesAdapter(messageList);
-        binding.recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new MessagesAdapter();
+        adapter.setOnFailedMessageClickListener(this::showFailedMessageDialog);
+        layoutManager = new LinearLayoutManager(this);
+        binding.recyclerView.setLayoutManager(layoutManager);
         binding.recyclerView.setAdapter(adapter);
+        binding.recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy < 0 && layoutManager.findFirstVisibleItemPosition() <= LOAD_OLDER_THRESHOLD) {
+                    loadOlderMessages();
+                } else if (dy > 0 && layoutManager.findLastVisibleItemPosition() >= messageList.size() - 1) {
+                    if (trimOffscreenHistory()) {
+                        submitMessages(null);
+                    }
+                }
+            }
+        });
 
         binding.sendButton.setOnClickListener(v -> sendMessage());
+        outbox.addOnMessagesFailedListener(failedListener);
 
         // Load receiver name
         loadReceiverName();
@@ -69,7 +136,12 @@ public class ChatActivity extends AppCompatActivity {
     }
 
     private void updateEmptyState() {
-        if (messageList.isEmpty()) {
+        if (!firstMessageTraced && adapter.getItemCount() > 0) {
+            firstMessageTraced = true;
+            Trace.endAsyncSection(FIRST_MESSAGE_SECTION, 0);
+        }
+        // Checks what is on screen, which may be mirrored messages before the listener delivers
+        if (adapter.getItemCount() == 0) {
             binding.emptyStateLayout.setVisibility(View.VISIBLE);
             binding.recyclerView.setVisibility(View.GONE);
         } else {
@@ -97,13 +169,49 @@ public class ChatActivity extends AppCompatActivity {
         String receiver = receiverId != null ? receiverId : "";
         Message message = new Message(senderId, receiver, messageText);
 
-        firestoreService.sendMessage(chatId, message, success -> {
-            if (success) {
-                binding.messageEditText.setText("");
-            } else {
-                Toast.makeText(this, "Failed to send message", Toast.LENGTH_SHORT).show();
-            }
-        });
+        // The outbox owns delivery from here, so the box clears at once and a second tap is a new message
+        Message queued = outbox.enqueue(chatId, message);
+        binding.messageEditText.setText("");
+        if (!messageIndex.containsKey(queued.getMessageId())) {
+            pendingMessages.put(queued.getMessageId(), queued);
+        }
+        submitMessages(this::scrollToBottom);
+    }
+
+    private void showFailedMessageDialog(Message message) {
+        String messageId = message.getMessageId();
+        new AlertDialog.Builder(this)
+                .setTitle("Message not sent")
+                .setMessage("This message could not be delivered.")
+                .setPositiveButton("Retry", (dialog, which) -> {
+                    if (pendingMessages.containsKey(messageId)) {
+                        pendingMessages.put(messageId, withFailed(message, false));
+                    }
+                    outbox.retry(messageId);
+                    submitMessages(null);
+                })
+                .setNegativeButton("Discard", (dialog, which) -> {
+                    pendingMessages.remove(messageId);
+                    outbox.discard(messageId);
+                    submitMessages(null);
+                })
+                .setNeutralButton("Cancel", null)
+                .show();
+    }
+
+    // A new copy, so the adapter's diff sees the change
+    private static Message withFailed(Message message, boolean failed) {
+        Message copy = new Message(message.getSenderId(), message.getReceiverId(), message.getMessage());
+        copy.setMessageId(message.getMessageId());
+        copy.setPending(true);
+        copy.setFailed(failed);
+        return copy;
+    }
+
+    private void scrollToBottom() {
+        if (adapter.getItemCount() > 0) {
+            binding.recyclerView.scrollToPosition(adapter.getItemCount() - 1);
+        }
     }
 
     private void listenForMessages() {
@@ -112,83 +220,175 @@ public class ChatActivity extends AppCompatActivity {
             return;
         }
         
-        messageListener = firestoreService.getMessages(chatId)
+        // Messages still queued from an earlier visit or a previous run of the app
+        outbox.getPendingMessages(chatId, pending -> {
+            if (pending.isEmpty() || isFinishing() || isDestroyed()) return;
+            for (Message message : pending) {
+                if (!messageIndex.containsKey(message.getMessageId())) {
+                    pendingMessages.put(message.getMessageId(), message);
+                }
+            }
+            if (messagesDelivered) {
+                submitMessages(this::scrollToBottom);
+            }
+        });
+
+        // Cold start: show the mirrored tail of the conversation while the listener connects
+        repository.getMirroredMessages(chatId, PAGE_SIZE, messages -> {
+            if (messagesDelivered || messages.isEmpty() || isFinishing() || isDestroyed()) return;
+            adapter.submitList(messages, () -> {
+                updateEmptyState();
+                binding.recyclerView.scrollToPosition(messages.size() - 1);
+            });
+        });
+
+        messageListener = firestoreService.getRecentMessages(chatId, PAGE_SIZE)
                 .addSnapshotListener((snapshots, e) -> {
+                    FirestoreMetrics.getInstance().recordSnapshot("getRecentMessages", snapshots, e);
                     if (e != null) {
                         Toast.makeText(ChatActivity.this, "Error loading messages", Toast.LENGTH_SHORT).show();
                         return;
                     }
                     if (snapshots == null) return;
 
-                    // Handle initial load and updates
+                    // A full first window means there is history before it; a cached window may still be partial
+                    if (!windowSettled) {
+                        hasOlderMessages = snapshots.size() == PAGE_SIZE;
+                        windowSettled = !snapshots.getMetadata().isFromCache();
+                    }
+
+                    // The first snapshot holds what was there on opening, which onResume already marked read
+                    boolean liveUpdate = messagesDelivered;
+                    messagesDelivered = true;
+                    // Apply every change to the backing list first, then hand the adapter a single diff
+                    boolean added = false;
+                    List<Message> changed = new ArrayList<>();
                     for (DocumentChange dc : snapshots.getDocumentChanges()) {
-                        Message message = dc.getDocument().toObject(Message.class);
+                        Message message = Message.fromSnapshot(dc.getDocument());
                         if (message == null || message.getSenderId() == null || message.getMessage() == null) {
                             continue;
                         }
 
                         String docId = dc.getDocument().getId();
-                        message.setMessageId(docId);
+                        // The snapshot copy (a local write at first, then the server's) replaces the pending one
+                        pendingMessages.remove(docId);
+                        if (dc.getType() != DocumentChange.Type.REMOVED) {
+                            changed.add(message);
+                        }
                         
                         switch (dc.getType()) {
                             case ADDED:
-                                if (!messageExists(docId)) {
+                                if (!messageIndex.containsKey(docId)) {
+                                    messageIndex.put(docId, messageList.size());
                                     messageList.add(message);
-                                    adapter.notifyItemInserted(messageList.size() - 1);
-                                    binding.recyclerView.post(() -> {
-                                        if (!messageList.isEmpty()) {
-                                            binding.recyclerView.scrollToPosition(messageList.size() - 1);
-                                        }
-                                        updateEmptyState();
-                                    });
+                                    added = true;
+                                    if (liveUpdate && message.getSenderId().equals(receiverId)) {
+                                        receivedSinceMarkedRead = true;
+                                    }
                                 }
                                 break;
                             case MODIFIED:
-                                updateMessage(docId, message);
+                                Integer position = messageIndex.get(docId);
+                                if (position != null) {
+                                    messageList.set(position, message);
+                                }
                                 break;
                             case REMOVED:
-                                removeMessage(docId);
+                                // Messages are never deleted (see firestore.rules), so REMOVED only means the
+                                // message slid out of the live window. It stays in the loaded history.
                                 break;
                         }
                     }
-                    
-                    updateEmptyState();
+
+                    repository.saveMessages(chatId, changed);
+
+                    if (added) {
+                        trimOffscreenHistory();
+                    }
+                    final boolean scrollDown = added;
+                    submitMessages(() -> {
+                        if (scrollDown) {
+                            scrollToBottom();
+                        }
+                    });
                 });
     }
 
-    private boolean messageExists(String messageId) {
-        for (Message m : messageList) {
-            if (messageId.equals(m.getMessageId())) {
-                return true;
+    private void submitMessages(Runnable onCommitted) {
+        List<Message> shown = new ArrayList<>(messageList);
+        shown.addAll(pendingMessages.values());
+        adapter.submitList(shown, () -> {
+            updateEmptyState();
+            if (onCommitted != null) {
+                onCommitted.run();
             }
-        }
-        return false;
+        });
     }
 
-    private void updateMessage(String messageId, Message message) {
+    private void rebuildMessageIndex() {
+        messageIndex.clear();
         for (int i = 0; i < messageList.size(); i++) {
-            if (messageId.equals(messageList.get(i).getMessageId())) {
-                messageList.set(i, message);
-                adapter.notifyItemChanged(i);
-                break;
-            }
+            messageIndex.put(messageList.get(i).getMessageId(), i);
         }
     }
 
-    private void removeMessage(String messageId) {
-        for (int i = 0; i < messageList.size(); i++) {
-            if (messageId.equals(messageList.get(i).getMessageId())) {
-                messageList.remove(i);
-                adapter.notifyItemRemoved(i);
-                updateEmptyState();
-                break;
+    private void loadOlderMessages() {
+        if (isLoadingOlder || !hasOlderMessages || messageList.isEmpty()) return;
+        Message oldest = messageList.get(0);
+        if (oldest.getTimestamp() == null || oldest.getMessageId() == null) return;
+
+        isLoadingOlder = true;
+        firestoreService.getOlderMessages(chatId, oldest.getTimestamp(), oldest.getMessageId(), PAGE_SIZE, older -> {
+            isLoadingOlder = false;
+            if (isFinishing() || isDestroyed() || older == null) return;
+            hasOlderMessages = older.size() == PAGE_SIZE;
+            repository.saveMessages(chatId, older);
+            List<Message> fresh = new ArrayList<>();
+            for (Message message : older) {
+                if (!messageIndex.containsKey(message.getMessageId())) {
+                    fresh.add(message);
+                }
             }
+            if (fresh.isEmpty()) return;
+            messageList.addAll(0, fresh);
+            rebuildMessageIndex();
+            submitMessages(null);
+        });
+    }
+
+    // Drops history beyond MAX_WINDOW_SIZE from the backing list; the caller submits the result
+    private boolean trimOffscreenHistory() {
+        int excess = messageList.size() - MAX_WINDOW_SIZE;
+        if (excess <= 0 || isLoadingOlder) return false;
+        messageList.subList(0, excess).clear();
+        rebuildMessageIndex();
+        // The dropped messages can be paged back in from the new oldest message
+        hasOlderMessages = true;
+        return true;
+    }
+
+    // Opening the chat clears its badge
+    @Override
+    protected void onResume() {
+        super.onResume();
+        receivedSinceMarkedRead = false;
+        firestoreService.markChatRead(chatId, firestoreService.getCurrentUserId());
+    }
+
+    // Messages that arrived while the chat was on screen were seen, but each one incremented the count
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (receivedSinceMarkedRead) {
+            receivedSinceMarkedRead = false;
+            firestoreService.markChatRead(chatId, firestoreService.getCurrentUserId());
         }
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        outbox.removeOnMessagesFailedListener(failedListener);
         if (messageListener != null) {
             messageListener.remove();
         }
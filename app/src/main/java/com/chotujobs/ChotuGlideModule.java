@@ -0,0 +1,40 @@
+package com.chotujobs;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+/**
+ * App-wide Glide configuration. Memory caches are sized in screens of pixels so they scale
+ * with the device, and decoded images default to RGB_565 since no image in the app needs alpha.
+ */
+@GlideModule
+public final class ChotuGlideModule extends AppGlideModule {
+
+    private static final long DISK_CACHE_SIZE_BYTES = 150L * 1024 * 1024;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        // Two screens of decoded bitmaps covers the visible cards plus the preloaded ones
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(2)
+                .setBitmapPoolScreens(3)
+                .build();
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_SIZE_BYTES));
+        builder.setDefaultRequestOptions(new RequestOptions().format(DecodeFormat.PREFER_RGB_565));
+    }
+
+    // All dependencies are registered through annotations; skip the slow manifest scan
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
@@ -2,9 +2,12 @@ package com.chotujobs;
 
 import android.app.DatePickerDialog;
 import android.content.Intent;
+import android.location.Address;
+import android.location.Geocoder;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.MediaStore;
+import android.util.Log;
 import android.view.View;
 import android.widget.ArrayAdapter;
 import android.widget.Toast;
@@ -15,25 +18,30 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.chotujobs.databinding.ActivityCreateJobBinding;
 import com.chotujobs.models.Job;
+import com.chotujobs.models.JobFilter;
 import com.chotujobs.services.FirestoreService;
-import com.google.firebase.storage.FirebaseStorage;
-import com.google.firebase.storage.StorageReference;
+import com.chotujobs.services.ImageUploader;
 
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CreateJobActivity extends AppCompatActivity {
 
     private ActivityCreateJobBinding binding;
     private FirestoreService firestoreService;
+    private ImageUploader imageUploader;
     private String contractorId;
     private Uri selectedImageUri = null;
     private Calendar calendar;
     private ActivityResultLauncher<Intent> imagePickerLauncher;
     private boolean isContractorUser = false;
+    private final ExecutorService geocodeExecutor = Executors.newSingleThreadExecutor();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -42,6 +50,7 @@ public class CreateJobActivity extends AppCompatActivity {
         setContentView(binding.getRoot());
 
         firestoreService = FirestoreService.getInstance();
+        imageUploader = new ImageUploader(this);
         // Prefer authenticated userId; fall back to stored preference
         String authUserId = firestoreService.getCurrentUserId();
         contractorId = authUserId != null ? authUserId : getSharedPreferences("chotujobs_prefs", 0).getString("user_id", "");
@@ -77,13 +86,7 @@ public class CreateJobActivity extends AppCompatActivity {
     }
 
     private void setupCategorySpinner() {
-        List<String> categories = new ArrayList<>();
-        categories.add("Construction");
-        categories.add("Electricity");
-        categories.add("Plumbing");
-        categories.add("Painting");
-        categories.add("Carpentry");
-        categories.add("Other");
+        List<String> categories = new ArrayList<>(JobFilter.CATEGORIES);
 
         ArrayAdapter<String> adapter = new ArrayAdapter<>(
                 this, android.R.layout.simple_spinner_item, categories) {
@@ -181,24 +184,18 @@ public class CreateJobActivity extends AppCompatActivity {
         binding.saveButton.setEnabled(false);
         int finalBidLimit = bidLimit;
         if (selectedImageUri != null) {
-            uploadImage(selectedImageUri, (imageUrl) -> {
-                createJobInFirestore(title, category, startDate, location, imageUrl, requirements, finalBidLimit);
+            imageUploader.upload(selectedImageUri, "job_images/" + System.currentTimeMillis(), uploaded -> {
+                // A failed upload still posts the job, just without a picture
+                String imageUrl = uploaded != null ? uploaded.imageUrl : null;
+                String thumbnailUrl = uploaded != null ? uploaded.thumbnailUrl : null;
+                createJobInFirestore(title, category, startDate, location, imageUrl, thumbnailUrl, requirements, finalBidLimit);
             });
         } else {
-            createJobInFirestore(title, category, startDate, location, null, requirements, bidLimit);
+            createJobInFirestore(title, category, startDate, location, null, null, requirements, bidLimit);
         }
     }
 
-    private void uploadImage(Uri imageUri, OnImageUploadListener listener) {
-        StorageReference storageRef = FirebaseStorage.getInstance().getReference().child("job_images/" + System.currentTimeMillis() + ".jpg");
-        storageRef.putFile(imageUri)
-                .addOnSuccessListener(taskSnapshot -> storageRef.getDownloadUrl()
-                        .addOnSuccessListener(uri -> listener.onSuccess(uri.toString()))
-                        .addOnFailureListener(e -> listener.onSuccess(null)))
-                .addOnFailureListener(e -> listener.onSuccess(null));
-    }
-
-    private void createJobInFirestore(String title, String category, String startDate, String location, String imageUrl, String requirements, int bidLimit) {
+    private void createJobInFirestore(String title, String category, String startDate, String location, String imageUrl, String thumbnailUrl, String requirements, int bidLimit) {
         Job job = new Job();
         job.setContractorId(contractorId);
         job.setTitle(title);
@@ -206,10 +203,44 @@ public class CreateJobActivity extends AppCompatActivity {
         job.setStartDate(startDate);
         job.setLocation(location);
         job.setImageUrl(imageUrl);
+        job.setThumbnailUrl(thumbnailUrl);
         job.setRequirements(requirements);
         job.setBidLimit(bidLimit);
         job.setStatus("active");
 
+        // Coordinates are optional; a job whose location cannot be geocoded is still posted
+        geocodeLocation(location, address -> {
+            if (address != null) {
+                job.setLatitude(address.getLatitude());
+                job.setLongitude(address.getLongitude());
+            }
+            saveJobToFirestore(job);
+        });
+    }
+
+    private void geocodeLocation(String location, OnGeocodeListener listener) {
+        if (!Geocoder.isPresent()) {
+            listener.onGeocoded(null);
+            return;
+        }
+        Geocoder geocoder = new Geocoder(this, Locale.getDefault());
+        // getFromLocationName blocks on a network lookup
+        geocodeExecutor.execute(() -> {
+            Address address = null;
+            try {
+                List<Address> results = geocoder.getFromLocationName(location, 1);
+                if (results != null && !results.isEmpty() && results.get(0).hasLatitude() && results.get(0).hasLongitude()) {
+                    address = results.get(0);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                Log.w("CreateJobActivity", "Could not geocode job location", e);
+            }
+            Address result = address;
+            runOnUiThread(() -> listener.onGeocoded(result));
+        });
+    }
+
+    private void saveJobToFirestore(Job job) {
         firestoreService.createJob(job, jobId -> {
             binding.progressBar.setVisibility(View.GONE);
             binding.saveButton.setEnabled(true);
@@ -224,7 +255,14 @@ public class CreateJobActivity extends AppCompatActivity {
         });
     }
 
-    interface OnImageUploadListener {
-        void onSuccess(String imageUrl);
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // A lookup already running still finishes and posts the job
+        geocodeExecutor.shutdown();
+    }
+
+    interface OnGeocodeListener {
+        void onGeocoded(Address address);
     }
 }
@@ -12,8 +12,7 @@ import com.bumptech.glide.Glide;
 import com.chotujobs.databinding.ActivityEditProfileBinding;
 import com.chotujobs.models.User;
 import com.chotujobs.services.FirestoreService;
-import com.google.firebase.storage.FirebaseStorage;
-import com.google.firebase.storage.StorageReference;
+import com.chotujobs.services.ImageUploader;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -22,6 +21,7 @@ public class EditProfileActivity extends AppCompatActivity {
 
     private ActivityEditProfileBinding binding;
     private FirestoreService firestoreService;
+    private ImageUploader imageUploader;
     private String userId;
     private Uri selectedImageUri;
     private ActivityResultLauncher<Intent> imagePickerLauncher;
@@ -33,6 +33,7 @@ public class EditProfileActivity extends AppCompatActivity {
         setContentView(binding.getRoot());
 
         firestoreService = FirestoreService.getInstance();
+        imageUploader = new ImageUploader(this);
         userId = firestoreService.getCurrentUserId();
         if (userId == null) {
             Toast.makeText(this, "Please log in again.", Toast.LENGTH_SHORT).show();
@@ -59,26 +60,6 @@ public class EditProfileActivity extends AppCompatActivity {
         });
     }
 
-    private void uploadImage(Uri imageUri, OnImageUploadListener listener) {
-        if (imageUri == null) {
-            listener.onSuccess(null);
-            return;
-        }
-        
-        StorageReference storageRef = FirebaseStorage.getInstance().getReference().child("profile_images/" + userId + ".jpg");
-        storageRef.putFile(imageUri)
-                .addOnSuccessListener(taskSnapshot -> storageRef.getDownloadUrl()
-                        .addOnSuccessListener(uri -> listener.onSuccess(uri.toString()))
-                        .addOnFailureListener(e -> {
-                            Toast.makeText(this, "Failed to get image URL", Toast.LENGTH_SHORT).show();
-                            listener.onSuccess(null);
-                        }))
-                .addOnFailureListener(e -> {
-                    Toast.makeText(this, "Failed to upload image", Toast.LENGTH_SHORT).show();
-                    listener.onSuccess(null);
-                });
-    }
-
     private void loadUserProfile() {
         firestoreService.getUserProfile(userId, user -> {
             if (user != null) {
@@ -129,11 +110,14 @@ public class EditProfileActivity extends AppCompatActivity {
         if (selectedImageUri != null) {
             binding.btnSave.setEnabled(false);
             binding.btnSave.setText("Uploading...");
-            uploadImage(selectedImageUri, imageUrl -> {
+            imageUploader.upload(selectedImageUri, "profile_images/" + userId, uploaded -> {
                 binding.btnSave.setEnabled(true);
                 binding.btnSave.setText("Save");
-                if (imageUrl != null && !imageUrl.isEmpty()) {
-                    updates.put("profileImageUrl", imageUrl);
+                if (uploaded != null) {
+                    updates.put("profileImageUrl", uploaded.imageUrl);
+                    updates.put("profileThumbnailUrl", uploaded.thumbnailUrl);
+                } else {
+                    Toast.makeText(this, "Failed to upload image", Toast.LENGTH_SHORT).show();
                 }
                 updateUser(updates);
             });
@@ -145,6 +129,8 @@ public class EditProfileActivity extends AppCompatActivity {
     private void updateUser(Map<String, Object> updates) {
         firestoreService.updateUserProfile(userId, updates, success -> {
             if (success) {
+                // Push the new name/avatar into the summaries stored on this user's chats
+                firestoreService.refreshChatParticipant(userId, refreshed -> {});
                 Toast.makeText(this, "Profile updated successfully", Toast.LENGTH_SHORT).show();
                 setResult(RESULT_OK);
                 finish();
@@ -153,8 +139,4 @@ public class EditProfileActivity extends AppCompatActivity {
             }
         });
     }
-
-    interface OnImageUploadListener {
-        void onSuccess(String imageUrl);
-    }
 }
@@ -5,6 +5,7 @@ import android.content.SharedPreferences;
 import android.os.Bundle;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
+import com.chotujobs.data.MessageOutbox;
 import com.chotujobs.databinding.ActivityMainBinding;
 import com.chotujobs.fragments.ChatsFragment;
 import com.chotujobs.fragments.ContractorFragment;
@@ -35,6 +36,9 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
 
+        // Starts sending any messages still queued from a previous session
+        MessageOutbox.getInstance(this);
+
         setupBottomNav();
         if (savedInstanceState == null) {
             loadDefaultFragment();
@@ -1,33 +1,96 @@
 package com.chotujobs.adapters;
 
 import android.content.Intent;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
+import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
 import com.chotujobs.ChatActivity;
 import com.chotujobs.databinding.ItemChatBinding;
 import com.chotujobs.models.Chat;
+import com.chotujobs.models.ChatParticipant;
 import com.chotujobs.models.User;
 import com.chotujobs.services.FirestoreService;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class ChatsAdapter extends RecyclerView.Adapter<ChatsAdapter.ChatViewHolder> {
+public class ChatsAdapter extends ListAdapter<Chat, ChatsAdapter.ChatViewHolder>
+        implements ListPreloader.PreloadModelProvider<String> {
+
+    private static final int MAX_BADGE_COUNT = 99;
 
-    private List<Chat> chatList;
     private Map<String, User> userMap;
     private String currentUserId;
+    private final Map<String, Long> stableIds = new HashMap<>();
+    private RequestManager glide;
+    private int avatarSizePx;
 
-    public ChatsAdapter(List<Chat> chatList, Map<String, User> userMap) {
-        this.chatList = chatList;
+    public ChatsAdapter(Map<String, User> userMap) {
+        super(DIFF_CALLBACK);
         this.userMap = userMap;
         this.currentUserId = FirestoreService.getInstance().getCurrentUserId();
+        setHasStableIds(true);
+    }
+
+    private static final DiffUtil.ItemCallback<Chat> DIFF_CALLBACK = new DiffUtil.ItemCallback<Chat>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Chat oldItem, @NonNull Chat newItem) {
+            return safeEquals(oldItem.getChatId(), newItem.getChatId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Chat oldItem, @NonNull Chat newItem) {
+            return safeEquals(oldItem.getLastMessage(), newItem.getLastMessage())
+                    && safeEquals(oldItem.getLastMessageTimestamp(), newItem.getLastMessageTimestamp())
+                    && safeEquals(oldItem.getUserIds(), newItem.getUserIds())
+                    && safeEquals(oldItem.getParticipants(), newItem.getParticipants())
+                    && safeEquals(oldItem.getUnreadCounts(), newItem.getUnreadCounts());
+        }
+    };
+
+    private static boolean safeEquals(Object a, Object b) {
+        return a == b || (a != null && a.equals(b));
+    }
+
+    /**
+     * Rebinds only the rows whose other participant is in {@code userIds}, after their
+     * profiles have been added to the shared user map.
+     */
+    public void notifyUsersLoaded(Collection<String> userIds) {
+        List<Chat> chats = getCurrentList();
+        for (int i = 0; i < chats.size(); i++) {
+            if (userIds.contains(getOtherUserId(chats.get(i)))) {
+                notifyItemChanged(i);
+            }
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String chatId = getItem(position).getChatId();
+        Long id = stableIds.get(chatId);
+        if (id == null) {
+            id = (long) stableIds.size();
+            stableIds.put(chatId, id);
+        }
+        return id;
     }
 
     @NonNull
@@ -39,13 +102,59 @@ public class ChatsAdapter extends RecyclerView.Adapter<ChatsAdapter.ChatViewHold
 
     @Override
     public void onBindViewHolder(@NonNull ChatViewHolder holder, int position) {
-        Chat chat = chatList.get(position);
+        Chat chat = getItem(position);
         holder.bind(chat);
     }
 
+    // Prefer the summary stored on the chat; fall back to a loaded profile for older chats
+    private ChatParticipant summaryFor(Chat chat, String otherUserId) {
+        ChatParticipant participant = chat.getParticipants() != null ? chat.getParticipants().get(otherUserId) : null;
+        if (participant != null && participant.getName() != null) {
+            return participant;
+        }
+        User user = userMap.get(otherUserId);
+        return user != null && user.getName() != null ? ChatParticipant.fromUser(user) : null;
+    }
+
     @Override
-    public int getItemCount() {
-        return chatList.size();
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        glide = Glide.with(recyclerView);
+        avatarSizePx = ImageRequests.dpToPx(recyclerView.getContext(), ImageRequests.CHAT_AVATAR_DP);
+    }
+
+    public int getAvatarSizePx() {
+        return avatarSizePx;
+    }
+
+    @NonNull
+    @Override
+    public List<String> getPreloadItems(int position) {
+        if (position < 0 || position >= getItemCount()) return Collections.emptyList();
+        Chat chat = getItem(position);
+        String otherUserId = getOtherUserId(chat);
+        ChatParticipant participant = otherUserId.isEmpty() ? null : summaryFor(chat, otherUserId);
+        String url = participant != null ? participant.getProfileImageUrl() : null;
+        return url != null && !url.isEmpty() ? Collections.singletonList(url) : Collections.emptyList();
+    }
+
+    @Nullable
+    @Override
+    public RequestBuilder<Drawable> getPreloadRequestBuilder(@NonNull String url) {
+        if (glide == null) return null;
+        return ImageRequests.avatar(glide, url, avatarSizePx);
+    }
+
+    private String getOtherUserId(Chat chat) {
+        if (chat == null || chat.getUserIds() == null || currentUserId == null) {
+            return "";
+        }
+        for (String userId : chat.getUserIds()) {
+            if (userId != null && !userId.equals(currentUserId)) {
+                return userId;
+            }
+        }
+        return "";
     }
 
     class ChatViewHolder extends RecyclerView.ViewHolder {
@@ -61,30 +170,40 @@ public class ChatsAdapter extends RecyclerView.Adapter<ChatsAdapter.ChatViewHold
                 return;
             }
             
-            String otherUserId = "";
-            for (String userId : chat.getUserIds()) {
-                if (userId != null && !userId.equals(currentUserId)) {
-                    otherUserId = userId;
-                    break;
-                }
-            }
+            String otherUserId = getOtherUserId(chat);
 
             if (!otherUserId.isEmpty()) {
-                User user = userMap.get(otherUserId);
-                if (user != null && user.getName() != null) {
-                    binding.userNameTextView.setText(user.getName());
-                    if (user.getProfileImageUrl() != null && !user.getProfileImageUrl().isEmpty()) {
-                        Glide.with(itemView.getContext()).load(user.getProfileImageUrl()).into(binding.profileImageView);
-                    }
+                ChatParticipant participant = summaryFor(chat, otherUserId);
+                if (participant != null) {
+                    binding.userNameTextView.setText(participant.getName());
                 } else {
                     binding.userNameTextView.setText("Unknown User");
                 }
+                String imageUrl = participant != null ? participant.getProfileImageUrl() : null;
+                if (imageUrl != null && !imageUrl.isEmpty() && glide != null) {
+                    ImageRequests.avatar(glide, imageUrl, avatarSizePx)
+                            .placeholder(android.R.drawable.ic_menu_gallery)
+                            .into(binding.profileImageView);
+                } else {
+                    Glide.with(itemView).clear(binding.profileImageView);
+                    binding.profileImageView.setImageResource(android.R.drawable.ic_menu_gallery);
+                }
             } else {
                 binding.userNameTextView.setText("Chat");
             }
 
             binding.lastMessageTextView.setText(chat.getLastMessage() != null ? chat.getLastMessage() : "");
 
+            long unread = chat.getUnreadCount(currentUserId);
+            if (unread > 0) {
+                binding.unreadBadgeTextView.setText(unread > MAX_BADGE_COUNT ? MAX_BADGE_COUNT + "+" : String.valueOf(unread));
+                binding.unreadBadgeTextView.setVisibility(View.VISIBLE);
+                binding.lastMessageTextView.setTypeface(null, Typeface.BOLD);
+            } else {
+                binding.unreadBadgeTextView.setVisibility(View.GONE);
+                binding.lastMessageTextView.setTypeface(null, Typeface.NORMAL);
+            }
+
             final String finalOtherUserId = otherUserId;
             final String chatId = chat.getChatId();
             if (chatId != null && !chatId.isEmpty()) {
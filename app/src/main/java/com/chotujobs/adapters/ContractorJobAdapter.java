@@ -11,10 +11,12 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
 import com.chotujobs.databinding.ItemContractorJobBinding;
 import com.chotujobs.models.Job;
+import java.util.Locale;
 
 public class ContractorJobAdapter extends ListAdapter<Job, ContractorJobAdapter.JobViewHolder> {
 
     private OnJobClickListener listener;
+    private int[] imageSize;
 
     public interface OnJobClickListener {
         void onJobClick(Job job);
@@ -38,7 +40,11 @@ public class ContractorJobAdapter extends ListAdapter<Job, ContractorJobAdapter.
                     && safeEquals(oldItem.getStatus(), newItem.getStatus())
                     && safeEquals(oldItem.getStartDate(), newItem.getStartDate())
                     && safeEquals(oldItem.getLocation(), newItem.getLocation())
-                    && safeEquals(oldItem.getImageUrl(), newItem.getImageUrl());
+                    && safeEquals(oldItem.getImageUrl(), newItem.getImageUrl())
+                    && safeEquals(oldItem.getThumbnailUrl(), newItem.getThumbnailUrl())
+                    && oldItem.getBidCount() == newItem.getBidCount()
+                    && oldItem.getPendingBidCount() == newItem.getPendingBidCount()
+                    && safeEquals(oldItem.getMinBidAmount(), newItem.getMinBidAmount());
         }
     };
 
@@ -49,6 +55,9 @@ public class ContractorJobAdapter extends ListAdapter<Job, ContractorJobAdapter.
     @NonNull
     @Override
     public JobViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (imageSize == null) {
+            imageSize = ImageRequests.jobImageSize(parent.getContext());
+        }
         ItemContractorJobBinding binding = ItemContractorJobBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false);
         return new JobViewHolder(binding);
     }
@@ -86,12 +95,26 @@ public class ContractorJobAdapter extends ListAdapter<Job, ContractorJobAdapter.
             binding.dateTextView.setText("Start: " + (job.getStartDate() != null ? job.getStartDate() : ""));
             binding.locationTextView.setText("Location: " + (job.getLocation() != null ? job.getLocation() : ""));
 
+            // Read straight off the job document's aggregates, no bid query per row
+            if (job.getBidCount() > 0) {
+                StringBuilder stats = new StringBuilder()
+                        .append(job.getBidCount()).append(job.getBidCount() == 1 ? " bid" : " bids")
+                        .append(" · ").append(job.getPendingBidCount()).append(" pending");
+                if (job.getMinBidAmount() != null) {
+                    stats.append(" · lowest ₹").append(String.format(Locale.getDefault(), "%.0f", job.getMinBidAmount()));
+                }
+                binding.bidStatsTextView.setText(stats);
+                binding.bidStatsTextView.setVisibility(View.VISIBLE);
+            } else {
+                binding.bidStatsTextView.setVisibility(View.GONE);
+            }
+
             if (job.getImageUrl() != null && !job.getImageUrl().isEmpty()) {
                 binding.imageView.setVisibility(View.VISIBLE);
-                Glide.with(itemView.getContext())
-                        .load(job.getImageUrl())
+                ImageRequests.jobImage(Glide.with(itemView), job, imageSize[0], imageSize[1])
                         .into(binding.imageView);
             } else {
+                Glide.with(itemView).clear(binding.imageView);
                 binding.imageView.setVisibility(View.GONE);
             }
         }
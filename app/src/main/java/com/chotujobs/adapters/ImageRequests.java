@@ -0,0 +1,57 @@
+package com.chotujobs.adapters;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.util.DisplayMetrics;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.chotujobs.models.Job;
+
+/**
+ * Glide requests shared by the lists and the screens that show the same images. Binding and
+ * preloading must build identical requests (same size and transformation) or the preloaded
+ * bitmap is never found in the cache, so both go through here.
+ */
+public final class ImageRequests {
+
+    // Rows fetched ahead of the scroll position
+    public static final int PRELOAD_AHEAD_ITEMS = 6;
+
+    // Job card image: full width inside an 8dp margin and 16dp padding, 150dp tall
+    private static final int JOB_CARD_HORIZONTAL_INSET_DP = 2 * (8 + 16);
+    private static final int JOB_CARD_IMAGE_HEIGHT_DP = 150;
+    public static final int CHAT_AVATAR_DP = 56;
+
+    private ImageRequests() {}
+
+    public static int[] jobImageSize(Context context) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        int width = metrics.widthPixels - Math.round(JOB_CARD_HORIZONTAL_INSET_DP * metrics.density);
+        int height = Math.round(JOB_CARD_IMAGE_HEIGHT_DP * metrics.density);
+        return new int[]{Math.max(1, width), Math.max(1, height)};
+    }
+
+    public static int dpToPx(Context context, int dp) {
+        return Math.round(dp * context.getResources().getDisplayMetrics().density);
+    }
+
+    // Decoded at the card's size; the stored thumbnail shows first while the full image loads
+    public static RequestBuilder<Drawable> jobImage(RequestManager glide, Job job, int width, int height) {
+        RequestBuilder<Drawable> request = glide.load(job.getImageUrl())
+                .override(width, height)
+                .centerCrop();
+        if (job.getThumbnailUrl() != null && !job.getThumbnailUrl().isEmpty()) {
+            request = request.thumbnail(glide.load(job.getThumbnailUrl())
+                    .override(width, height)
+                    .centerCrop());
+        }
+        return request;
+    }
+
+    // Avatars are small, so the thumbnail alone is enough when there is one
+    public static RequestBuilder<Drawable> avatar(RequestManager glide, String url, int sizePx) {
+        return glide.load(url)
+                .override(sizePx, sizePx)
+                .centerCrop();
+    }
+}
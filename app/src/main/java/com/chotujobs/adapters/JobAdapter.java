@@ -1,18 +1,29 @@
 package com.chotujobs.adapters;
 
+import android.graphics.drawable.Drawable;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
 import com.chotujobs.databinding.ItemJobBinding;
 import com.chotujobs.models.Job;
 import com.chotujobs.services.FirestoreService;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 
-public class JobAdapter extends ListAdapter<Job, JobAdapter.JobViewHolder> {
+public class JobAdapter extends ListAdapter<Job, JobAdapter.JobViewHolder>
+        implements ListPreloader.PreloadModelProvider<Job> {
 
     private OnJobClickListener listener;
     private String userRole;
+    private RequestManager glide;
+    private int[] imageSize;
 
     public interface OnJobClickListener {
         void onJobClick(Job job);
@@ -29,6 +40,36 @@ public class JobAdapter extends ListAdapter<Job, JobAdapter.JobViewHolder> {
         this.userRole = userRole != null ? userRole : "";
     }
     
+    // Size the preloader must request at so its bitmaps match the ones bind() asks for
+    public int[] getImageSize() {
+        return imageSize;
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        glide = Glide.with(recyclerView);
+        imageSize = ImageRequests.jobImageSize(recyclerView.getContext());
+    }
+
+    @NonNull
+    @Override
+    public List<Job> getPreloadItems(int position) {
+        if (position < 0 || position >= getItemCount()) return Collections.emptyList();
+        Job job = getItem(position);
+        if (job == null || job.getImageUrl() == null || job.getImageUrl().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(job);
+    }
+
+    @Nullable
+    @Override
+    public RequestBuilder<Drawable> getPreloadRequestBuilder(@NonNull Job job) {
+        if (glide == null) return null;
+        return ImageRequests.jobImage(glide, job, imageSize[0], imageSize[1]);
+    }
+
     private boolean canUserPlaceBid(String role) {
         return FirestoreService.canPlaceBid(role);
     }
@@ -46,8 +87,11 @@ public class JobAdapter extends ListAdapter<Job, JobAdapter.JobViewHolder> {
                     && safeEquals(oldItem.getStartDate(), newItem.getStartDate())
                     && safeEquals(oldItem.getLocation(), newItem.getLocation())
                     && safeEquals(oldItem.getImageUrl(), newItem.getImageUrl())
+                    && safeEquals(oldItem.getThumbnailUrl(), newItem.getThumbnailUrl())
                     && safeEquals(oldItem.getStatus(), newItem.getStatus())
-                    && oldItem.getBidLimit() == newItem.getBidLimit();
+                    && oldItem.getBidLimit() == newItem.getBidLimit()
+                    && oldItem.getBidCount() == newItem.getBidCount()
+                    && safeEquals(oldItem.getMinBidAmount(), newItem.getMinBidAmount());
         }
     };
 
@@ -114,17 +158,28 @@ public class JobAdapter extends ListAdapter<Job, JobAdapter.JobViewHolder> {
                 binding.bidLimitTextView.setVisibility(android.view.View.GONE);
             }
 
+            if (job.getBidCount() > 0) {
+                String stats = job.getBidCount() + (job.getBidCount() == 1 ? " bid" : " bids");
+                if (job.getMinBidAmount() != null) {
+                    stats += " · lowest ₹" + String.format(Locale.getDefault(), "%.0f", job.getMinBidAmount());
+                }
+                binding.bidStatsTextView.setText(stats);
+                binding.bidStatsTextView.setVisibility(android.view.View.VISIBLE);
+            } else {
+                binding.bidStatsTextView.setVisibility(android.view.View.GONE);
+            }
+
             boolean canBid = canUserPlaceBid(userRole);
             int visibility = canBid ? android.view.View.VISIBLE : android.view.View.GONE;
             binding.applyButton.setVisibility(visibility);
             binding.messageButton.setVisibility(visibility);
 
-            if (job.getImageUrl() != null && !job.getImageUrl().isEmpty()) {
-                Glide.with(itemView.getContext())
-                        .load(job.getImageUrl())
+            if (job.getImageUrl() != null && !job.getImageUrl().isEmpty() && glide != null) {
+                ImageRequests.jobImage(glide, job, imageSize[0], imageSize[1])
                         .into(binding.imageView);
                 binding.imageView.setVisibility(android.view.View.VISIBLE);
             } else {
+                Glide.with(itemView).clear(binding.imageView);
                 binding.imageView.setVisibility(android.view.View.GONE);
             }
         }
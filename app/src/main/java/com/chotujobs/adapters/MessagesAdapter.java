@@ -6,32 +6,76 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.chotujobs.R;
 import com.chotujobs.models.Message;
 import com.chotujobs.services.FirestoreService;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
-public class MessagesAdapter extends RecyclerView.Adapter<MessagesAdapter.MessageViewHolder> {
+public class MessagesAdapter extends ListAdapter<Message, MessagesAdapter.MessageViewHolder> {
 
-    private List<Message> messageList;
     private String currentUserId;
+    private final Map<String, Long> stableIds = new HashMap<>();
+    private OnFailedMessageClickListener failedMessageClickListener;
     private static final int VIEW_TYPE_SENT = 1;
     private static final int VIEW_TYPE_RECEIVED = 2;
 
-    public MessagesAdapter(List<Message> messageList) {
-        this.messageList = messageList;
+    public interface OnFailedMessageClickListener {
+        void onFailedMessageClick(Message message);
+    }
+
+    public MessagesAdapter() {
+        super(DIFF_CALLBACK);
         this.currentUserId = FirestoreService.getInstance().getCurrentUserId();
+        setHasStableIds(true);
+    }
+
+    public void setOnFailedMessageClickListener(OnFailedMessageClickListener listener) {
+        this.failedMessageClickListener = listener;
+    }
+
+    private static final DiffUtil.ItemCallback<Message> DIFF_CALLBACK = new DiffUtil.ItemCallback<Message>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Message oldItem, @NonNull Message newItem) {
+            return safeEquals(oldItem.getMessageId(), newItem.getMessageId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Message oldItem, @NonNull Message newItem) {
+            return safeEquals(oldItem.getMessage(), newItem.getMessage())
+                    && safeEquals(oldItem.getSenderId(), newItem.getSenderId())
+                    && safeEquals(oldItem.getTimestamp(), newItem.getTimestamp())
+                    && oldItem.isPending() == newItem.isPending()
+                    && oldItem.isFailed() == newItem.isFailed();
+        }
+    };
+
+    private static boolean safeEquals(Object a, Object b) {
+        return a == b || (a != null && a.equals(b));
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String messageId = getItem(position).getMessageId();
+        Long id = stableIds.get(messageId);
+        if (id == null) {
+            id = (long) stableIds.size();
+            stableIds.put(messageId, id);
+        }
+        return id;
     }
 
     @Override
     public int getItemViewType(int position) {
-        if (position < 0 || position >= messageList.size()) {
+        if (position < 0 || position >= getItemCount()) {
             return VIEW_TYPE_RECEIVED;
         }
-        Message message = messageList.get(position);
+        Message message = getItem(position);
         boolean isSentByMe = currentUserId != null && message != null 
                 && message.getSenderId() != null 
                 && message.getSenderId().equals(currentUserId);
@@ -50,21 +94,18 @@ public class MessagesAdapter extends RecyclerView.Adapter<MessagesAdapter.Messag
 
     @Override
     public void onBindViewHolder(@NonNull MessageViewHolder holder, int position) {
-        Message message = messageList.get(position);
+        Message message = getItem(position);
         holder.bind(message);
     }
 
-    @Override
-    public int getItemCount() {
-        return messageList.size();
-    }
-
     class MessageViewHolder extends RecyclerView.ViewHolder {
         private TextView messageTextView;
+        private TextView statusTextView; // only in the sent layout
 
         public MessageViewHolder(@NonNull View itemView) {
             super(itemView);
             messageTextView = itemView.findViewById(R.id.messageTextView);
+            statusTextView = itemView.findViewById(R.id.statusTextView);
         }
 
         public void bind(Message message) {
@@ -73,6 +114,22 @@ public class MessagesAdapter extends RecyclerView.Adapter<MessagesAdapter.Messag
             } else {
                 messageTextView.setText("");
             }
+            boolean failed = message != null && message.isFailed();
+            // Dimmed until the outbox has handed it to Firestore
+            itemView.setAlpha(message != null && message.isPending() && !failed ? 0.6f : 1f);
+            if (statusTextView != null) {
+                statusTextView.setVisibility(failed ? View.VISIBLE : View.GONE);
+            }
+            if (failed) {
+                itemView.setOnClickListener(v -> {
+                    if (failedMessageClickListener != null) {
+                        failedMessageClickListener.onFailedMessageClick(message);
+                    }
+                });
+            } else {
+                itemView.setOnClickListener(null);
+                itemView.setClickable(false);
+            }
         }
     }
 }
@@ -0,0 +1,38 @@
+package com.chotujobs.data;
+
+import android.content.Context;
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+
+@Database(entities = {JobEntity.class, BidEntity.class, ChatEntity.class, MessageEntity.class},
+        version = 5, exportSchema = false)
+@TypeConverters(Converters.class)
+public abstract class AppDatabase extends RoomDatabase {
+
+    private static final String DATABASE_NAME = "chotujobs.db";
+    private static volatile AppDatabase instance;
+
+    public abstract JobDao jobDao();
+
+    public abstract BidDao bidDao();
+
+    public abstract ChatDao chatDao();
+
+    public abstract MessageDao messageDao();
+
+    public static AppDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AppDatabase.class) {
+                if (instance == null) {
+                    // The mirror is rebuilt from Firestore, so a schema change simply starts it over
+                    instance = Room.databaseBuilder(context.getApplicationContext(), AppDatabase.class, DATABASE_NAME)
+                            .fallbackToDestructiveMigration()
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,17 @@
+package com.chotujobs.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao
+public interface BidDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<BidEntity> bids);
+
+    @Query("SELECT * FROM bids WHERE job_id = :jobId ORDER BY timestamp DESC")
+    List<BidEntity> getBidsForJob(String jobId);
+}
@@ -0,0 +1,51 @@
+package com.chotujobs.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import com.chotujobs.models.Bid;
+import java.util.Date;
+
+@Entity(tableName = "bids", indices = {@Index({"job_id", "timestamp"})})
+public class BidEntity {
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "bid_id")
+    public String bidId = "";
+    @ColumnInfo(name = "job_id")
+    public String jobId;
+    @ColumnInfo(name = "bidder_id")
+    public String bidderId;
+    @ColumnInfo(name = "bid_amount")
+    public double bidAmount;
+    @ColumnInfo(name = "labourer_id_if_agent")
+    public String labourerIdIfAgent;
+    public String status;
+    public Date timestamp;
+
+    public static BidEntity fromBid(Bid bid) {
+        BidEntity entity = new BidEntity();
+        entity.bidId = bid.getBidId();
+        entity.jobId = bid.getJobId();
+        entity.bidderId = bid.getBidderId();
+        entity.bidAmount = bid.getBidAmount();
+        entity.labourerIdIfAgent = bid.getLabourerIdIfAgent();
+        entity.status = bid.getStatus();
+        entity.timestamp = bid.getTimestamp();
+        return entity;
+    }
+
+    public Bid toBid() {
+        Bid bid = new Bid();
+        bid.setBidId(bidId);
+        bid.setJobId(jobId);
+        bid.setBidderId(bidderId);
+        bid.setBidAmount(bidAmount);
+        bid.setLabourerIdIfAgent(labourerIdIfAgent);
+        bid.setStatus(status);
+        bid.setTimestamp(timestamp);
+        return bid;
+    }
+}
@@ -0,0 +1,20 @@
+package com.chotujobs.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao
+public interface ChatDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<ChatEntity> chats);
+
+    @Query("SELECT * FROM chats WHERE owner_uid = :ownerUid ORDER BY unread_count > 0 DESC, last_message_timestamp DESC")
+    List<ChatEntity> getChatsForUser(String ownerUid);
+
+    @Query("DELETE FROM chats WHERE owner_uid = :ownerUid AND chat_id IN (:chatIds)")
+    void deleteChats(String ownerUid, List<String> chatIds);
+}
@@ -0,0 +1,57 @@
+package com.chotujobs.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import com.chotujobs.models.Chat;
+import com.chotujobs.models.ChatParticipant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+// Keyed by the signed-in user too, so accounts sharing a device never see each other's chat list
+@Entity(tableName = "chats", primaryKeys = {"owner_uid", "chat_id"},
+        indices = {@Index({"owner_uid", "last_message_timestamp"})})
+public class ChatEntity {
+    @NonNull
+    @ColumnInfo(name = "owner_uid")
+    public String ownerUid = "";
+    @NonNull
+    @ColumnInfo(name = "chat_id")
+    public String chatId = "";
+    @ColumnInfo(name = "user_ids")
+    public List<String> userIds;
+    @ColumnInfo(name = "last_message")
+    public String lastMessage;
+    @ColumnInfo(name = "last_message_timestamp")
+    public Date lastMessageTimestamp;
+    public Map<String, ChatParticipant> participants;
+    // Only the owner's own counter is mirrored
+    @ColumnInfo(name = "unread_count")
+    public long unreadCount;
+
+    public static ChatEntity fromChat(String ownerUid, Chat chat) {
+        ChatEntity entity = new ChatEntity();
+        entity.ownerUid = ownerUid;
+        entity.chatId = chat.getChatId();
+        entity.userIds = chat.getUserIds();
+        entity.lastMessage = chat.getLastMessage();
+        entity.lastMessageTimestamp = chat.getLastMessageTimestamp();
+        entity.participants = chat.getParticipants();
+        entity.unreadCount = chat.getUnreadCount(ownerUid);
+        return entity;
+    }
+
+    public Chat toChat() {
+        Chat chat = new Chat();
+        chat.setChatId(chatId);
+        chat.setUserIds(userIds);
+        chat.setLastMessage(lastMessage);
+        chat.setLastMessageTimestamp(lastMessageTimestamp);
+        chat.setParticipants(participants);
+        chat.setUnreadCounts(Collections.singletonMap(ownerUid, unreadCount));
+        return chat;
+    }
+}
@@ -0,0 +1,88 @@
+package com.chotujobs.data;
+
+import androidx.room.TypeConverter;
+import com.chotujobs.models.ChatParticipant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+// Room column conversions for the non-primitive model fields
+public class Converters {
+
+    @TypeConverter
+    public static Long fromDate(Date date) {
+        return date != null ? date.getTime() : null;
+    }
+
+    @TypeConverter
+    public static Date toDate(Long millis) {
+        return millis != null ? new Date(millis) : null;
+    }
+
+    @TypeConverter
+    public static String fromStringList(List<String> values) {
+        return values != null ? new JSONArray(values).toString() : null;
+    }
+
+    @TypeConverter
+    public static List<String> toStringList(String json) {
+        if (json == null) return null;
+        List<String> values = new ArrayList<>();
+        try {
+            JSONArray array = new JSONArray(json);
+            for (int i = 0; i < array.length(); i++) {
+                values.add(array.getString(i));
+            }
+        } catch (JSONException e) {
+            return null;
+        }
+        return values;
+    }
+
+    @TypeConverter
+    public static String fromParticipants(Map<String, ChatParticipant> participants) {
+        if (participants == null) return null;
+        JSONObject json = new JSONObject();
+        try {
+            for (Map.Entry<String, ChatParticipant> entry : participants.entrySet()) {
+                ChatParticipant participant = entry.getValue();
+                if (participant == null) continue;
+                JSONObject value = new JSONObject();
+                value.put("name", participant.getName());
+                value.put("profileImageUrl", participant.getProfileImageUrl());
+                value.put("role", participant.getRole());
+                json.put(entry.getKey(), value);
+            }
+        } catch (JSONException e) {
+            return null;
+        }
+        return json.toString();
+    }
+
+    @TypeConverter
+    public static Map<String, ChatParticipant> toParticipants(String json) {
+        if (json == null) return null;
+        Map<String, ChatParticipant> participants = new HashMap<>();
+        try {
+            JSONObject object = new JSONObject(json);
+            Iterator<String> keys = object.keys();
+            while (keys.hasNext()) {
+                String userId = keys.next();
+                JSONObject value = object.getJSONObject(userId);
+                participants.put(userId, new ChatParticipant(
+                        value.optString("name", null),
+                        value.optString("profileImageUrl", null),
+                        value.optString("role", null)));
+            }
+        } catch (JSONException e) {
+            return null;
+        }
+        return participants;
+    }
+}
@@ -0,0 +1,208 @@
+package com.chotujobs.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.chotujobs.models.Bid;
+import com.chotujobs.models.Chat;
+import com.chotujobs.models.Job;
+import com.chotujobs.models.Message;
+import com.chotujobs.services.FirestoreService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Sits in front of FirestoreService and mirrors every job, bid, chat and message the app
+ * fetches into Room. Screens read the mirror first so they have content on a cold start
+ * before the network answers; Firestore results then replace it and are written back.
+ */
+public class DataRepository {
+
+    private static final String TAG = "DataRepository";
+    private static DataRepository instance;
+
+    private final AppDatabase database;
+    private final FirestoreService firestoreService;
+    // Room forbids main-thread access; a single thread also keeps writes in arrival order
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private DataRepository(Context context) {
+        database = AppDatabase.getInstance(context);
+        firestoreService = FirestoreService.getInstance();
+    }
+
+    public static synchronized DataRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new DataRepository(context);
+        }
+        return instance;
+    }
+
+    // ========== JOBS ==========
+
+    public void getMirroredActiveJobs(int limit, FirestoreService.OnCompleteListener<List<Job>> listener) {
+        readLocal(() -> {
+            List<Job> jobs = new ArrayList<>();
+            for (JobEntity entity : database.jobDao().getActiveJobs(limit)) {
+                jobs.add(entity.toJob());
+            }
+            return jobs;
+        }, listener);
+    }
+
+    // Delivers the mirrored jobs first (when there are any), then the Firestore result. The policy
+    // applies to the Firestore read, so CACHE_THEN_SERVER may add a callback from its cache in between.
+    public void getJobsByContractor(String contractorId, FirestoreService.ReadPolicy policy,
+                                    FirestoreService.OnCompleteListener<List<Job>> listener) {
+        readLocal(() -> {
+            List<Job> jobs = new ArrayList<>();
+            for (JobEntity entity : database.jobDao().getJobsByContractor(contractorId)) {
+                jobs.add(entity.toJob());
+            }
+            return jobs;
+        }, local -> {
+            if (!local.isEmpty()) {
+                listener.onComplete(local);
+            }
+            firestoreService.getJobsByContractor(contractorId, policy, jobs -> {
+                // Jobs are never deleted, so an empty answer over a non-empty mirror is a failed read
+                if (jobs == null || (jobs.isEmpty() && !local.isEmpty())) return;
+                saveJobs(jobs);
+                listener.onComplete(jobs);
+            });
+        });
+    }
+
+    public void saveJobs(Collection<Job> jobs) {
+        if (jobs == null || jobs.isEmpty()) return;
+        List<JobEntity> entities = new ArrayList<>();
+        for (Job job : jobs) {
+            if (job != null && job.getJobId() != null) {
+                entities.add(JobEntity.fromJob(job));
+            }
+        }
+        write(() -> database.jobDao().upsertAll(entities));
+    }
+
+    // For jobs that dropped out of the active feed
+    public void markJobsClosed(Collection<String> jobIds) {
+        if (jobIds == null || jobIds.isEmpty()) return;
+        List<String> ids = new ArrayList<>(jobIds);
+        write(() -> database.jobDao().markClosed(ids));
+    }
+
+    // ========== BIDS ==========
+
+    public void getBidsByJob(String jobId, FirestoreService.ReadPolicy policy, FirestoreService.OnCompleteListener<List<Bid>> listener) {
+        readLocal(() -> {
+            List<Bid> bids = new ArrayList<>();
+            for (BidEntity entity : database.bidDao().getBidsForJob(jobId)) {
+                bids.add(entity.toBid());
+            }
+            return bids;
+        }, local -> {
+            if (!local.isEmpty()) {
+                listener.onComplete(local);
+            }
+            firestoreService.getBidsByJob(jobId, policy, bids -> {
+                if (bids == null || (bids.isEmpty() && !local.isEmpty())) return;
+                saveBids(bids);
+                listener.onComplete(bids);
+            });
+        });
+    }
+
+    public void saveBids(Collection<Bid> bids) {
+        if (bids == null || bids.isEmpty()) return;
+        List<BidEntity> entities = new ArrayList<>();
+        for (Bid bid : bids) {
+            if (bid != null && bid.getBidId() != null) {
+                entities.add(BidEntity.fromBid(bid));
+            }
+        }
+        write(() -> database.bidDao().upsertAll(entities));
+    }
+
+    // ========== CHATS ==========
+
+    public void getMirroredChats(String userId, FirestoreService.OnCompleteListener<List<Chat>> listener) {
+        readLocal(() -> {
+            List<Chat> chats = new ArrayList<>();
+            for (ChatEntity entity : database.chatDao().getChatsForUser(userId)) {
+                chats.add(entity.toChat());
+            }
+            return chats;
+        }, listener);
+    }
+
+    public void saveChats(String userId, Collection<Chat> chats) {
+        if (userId == null || chats == null || chats.isEmpty()) return;
+        List<ChatEntity> entities = new ArrayList<>();
+        for (Chat chat : chats) {
+            if (chat != null && chat.getChatId() != null) {
+                entities.add(ChatEntity.fromChat(userId, chat));
+            }
+        }
+        write(() -> database.chatDao().upsertAll(entities));
+    }
+
+    public void removeChats(String userId, Collection<String> chatIds) {
+        if (userId == null || chatIds == null || chatIds.isEmpty()) return;
+        List<String> ids = new ArrayList<>(chatIds);
+        write(() -> database.chatDao().deleteChats(userId, ids));
+    }
+
+    // ========== MESSAGES ==========
+
+    public void getMirroredMessages(String chatId, int limit, FirestoreService.OnCompleteListener<List<Message>> listener) {
+        readLocal(() -> {
+            List<Message> messages = new ArrayList<>();
+            for (MessageEntity entity : database.messageDao().getRecentMessages(chatId, limit)) {
+                messages.add(entity.toMessage());
+            }
+            return messages;
+        }, listener);
+    }
+
+    // Messages still waiting for their server timestamp are saved once the server has stamped them
+    public void saveMessages(String chatId, Collection<Message> messages) {
+        if (chatId == null || messages == null || messages.isEmpty()) return;
+        List<MessageEntity> entities = new ArrayList<>();
+        for (Message message : messages) {
+            if (message != null && message.getMessageId() != null && message.getTimestamp() != null) {
+                entities.add(MessageEntity.fromMessage(chatId, message));
+            }
+        }
+        write(() -> database.messageDao().upsertAll(entities));
+    }
+
+    private <T> void readLocal(Supplier<List<T>> query, FirestoreService.OnCompleteListener<List<T>> listener) {
+        executor.execute(() -> {
+            List<T> result;
+            try {
+                result = query.get();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error reading local mirror", e);
+                result = new ArrayList<>();
+            }
+            List<T> delivered = result;
+            mainHandler.post(() -> listener.onComplete(delivered));
+        });
+    }
+
+    private void write(Runnable change) {
+        executor.execute(() -> {
+            try {
+                change.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error writing local mirror", e);
+            }
+        });
+    }
+}
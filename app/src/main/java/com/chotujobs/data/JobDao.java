@@ -0,0 +1,24 @@
+package com.chotujobs.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao
+public interface JobDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<JobEntity> jobs);
+
+    @Query("SELECT * FROM jobs WHERE status = 'active' ORDER BY timestamp DESC LIMIT :limit")
+    List<JobEntity> getActiveJobs(int limit);
+
+    @Query("SELECT * FROM jobs WHERE contractor_id = :contractorId ORDER BY timestamp DESC")
+    List<JobEntity> getJobsByContractor(String contractorId);
+
+    // Jobs only leave the active feed by closing, so the row is kept for the contractor's list
+    @Query("UPDATE jobs SET status = 'closed' WHERE job_id IN (:jobIds) AND status = 'active'")
+    void markClosed(List<String> jobIds);
+}
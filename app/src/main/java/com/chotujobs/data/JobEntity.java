@@ -0,0 +1,109 @@
+package com.chotujobs.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import com.chotujobs.models.Job;
+import java.util.Date;
+import java.util.List;
+
+// Indexed on the columns the job lists filter and sort by
+@Entity(tableName = "jobs", indices = {
+        @Index({"status", "timestamp"}),
+        @Index({"contractor_id", "timestamp"})
+})
+public class JobEntity {
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "job_id")
+    public String jobId = "";
+    @ColumnInfo(name = "contractor_id")
+    public String contractorId;
+    public String title;
+    public String category;
+    @ColumnInfo(name = "start_date")
+    public String startDate;
+    public String location;
+    @ColumnInfo(name = "image_url")
+    public String imageUrl;
+    @ColumnInfo(name = "thumbnail_url")
+    public String thumbnailUrl;
+    public String status;
+    @ColumnInfo(name = "winner_user_id")
+    public String winnerUserId;
+    public Long timestamp;
+    public String requirements;
+    @ColumnInfo(name = "bid_limit")
+    public int bidLimit;
+    @ColumnInfo(name = "location_keys")
+    public List<String> locationKeys;
+    @ColumnInfo(name = "budget_band")
+    public String budgetBand;
+    public Double latitude;
+    public Double longitude;
+    public String geohash;
+    @ColumnInfo(name = "bid_count")
+    public int bidCount;
+    @ColumnInfo(name = "pending_bid_count")
+    public int pendingBidCount;
+    @ColumnInfo(name = "min_bid_amount")
+    public Double minBidAmount;
+    @ColumnInfo(name = "last_bid_at")
+    public Date lastBidAt;
+
+    public static JobEntity fromJob(Job job) {
+        JobEntity entity = new JobEntity();
+        entity.jobId = job.getJobId();
+        entity.contractorId = job.getContractorId();
+        entity.title = job.getTitle();
+        entity.category = job.getCategory();
+        entity.startDate = job.getStartDate();
+        entity.location = job.getLocation();
+        entity.imageUrl = job.getImageUrl();
+        entity.thumbnailUrl = job.getThumbnailUrl();
+        entity.status = job.getStatus();
+        entity.winnerUserId = job.getWinnerUserId();
+        entity.timestamp = job.getTimestamp();
+        entity.requirements = job.getRequirements();
+        entity.bidLimit = job.getBidLimit();
+        entity.locationKeys = job.getLocationKeys();
+        entity.budgetBand = job.getBudgetBand();
+        entity.latitude = job.getLatitude();
+        entity.longitude = job.getLongitude();
+        entity.geohash = job.getGeohash();
+        entity.bidCount = job.getBidCount();
+        entity.pendingBidCount = job.getPendingBidCount();
+        entity.minBidAmount = job.getMinBidAmount();
+        entity.lastBidAt = job.getLastBidAt();
+        return entity;
+    }
+
+    public Job toJob() {
+        Job job = new Job();
+        job.setJobId(jobId);
+        job.setContractorId(contractorId);
+        job.setTitle(title);
+        job.setCategory(category);
+        job.setStartDate(startDate);
+        job.setLocation(location);
+        job.setImageUrl(imageUrl);
+        job.setThumbnailUrl(thumbnailUrl);
+        job.setStatus(status);
+        job.setWinnerUserId(winnerUserId);
+        job.setTimestamp(timestamp);
+        job.setRequirements(requirements);
+        job.setBidLimit(bidLimit);
+        job.setLocationKeys(locationKeys);
+        job.setBudgetBand(budgetBand);
+        job.setLatitude(latitude);
+        job.setLongitude(longitude);
+        job.setGeohash(geohash);
+        job.setBidCount(bidCount);
+        job.setPendingBidCount(pendingBidCount);
+        job.setMinBidAmount(minBidAmount);
+        job.setLastBidAt(lastBidAt);
+        return job;
+    }
+}
@@ -0,0 +1,20 @@
+package com.chotujobs.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao
+public interface MessageDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<MessageEntity> messages);
+
+    // Newest `limit` messages, returned oldest first like the chat screen shows them; ties on
+    // timestamp break by id, as in Firestore
+    @Query("SELECT * FROM (SELECT * FROM messages WHERE chat_id = :chatId ORDER BY timestamp DESC, message_id DESC LIMIT :limit) "
+            + "ORDER BY timestamp ASC, message_id ASC")
+    List<MessageEntity> getRecentMessages(String chatId, int limit);
+}
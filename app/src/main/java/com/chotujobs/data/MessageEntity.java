@@ -0,0 +1,43 @@
+package com.chotujobs.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import com.chotujobs.models.Message;
+import java.util.Date;
+
+@Entity(tableName = "messages", indices = {@Index({"chat_id", "timestamp"})})
+public class MessageEntity {
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "message_id")
+    public String messageId = "";
+    @ColumnInfo(name = "chat_id")
+    public String chatId;
+    @ColumnInfo(name = "sender_id")
+    public String senderId;
+    @ColumnInfo(name = "receiver_id")
+    public String receiverId;
+    public String message;
+    public Date timestamp;
+
+    public static MessageEntity fromMessage(String chatId, Message message) {
+        MessageEntity entity = new MessageEntity();
+        entity.messageId = message.getMessageId();
+        entity.chatId = chatId;
+        entity.senderId = message.getSenderId();
+        entity.receiverId = message.getReceiverId();
+        entity.message = message.getMessage();
+        entity.timestamp = message.getTimestamp();
+        return entity;
+    }
+
+    public Message toMessage() {
+        Message result = new Message(senderId, receiverId, message);
+        result.setMessageId(messageId);
+        result.setTimestamp(timestamp);
+        return result;
+    }
+}
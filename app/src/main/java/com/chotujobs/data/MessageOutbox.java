@@ -0,0 +1,247 @@
+package com.chotujobs.data;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import com.chotujobs.models.Message;
+import com.chotujobs.services.FirestoreService;
+import com.chotujobs.services.FirestoreServiceException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Persistent queue between the chat screen and Firestore. A sent message is stored here first and
+ * shown right away as pending; the queue then drains oldest first whenever the device is online,
+ * backing off after failures. Consecutive queued messages for the same chat go out in one write
+ * with a single lastMessage update. Messages Firestore refuses for good are kept as failed,
+ * reported to listeners, and wait for the user to retry or discard them.
+ */
+public class MessageOutbox {
+
+    private static final String TAG = "MessageOutbox";
+    private static final long INITIAL_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 60 * 1000;
+    // Leaves room in the write for the chat document update
+    private static final int MAX_MESSAGES_PER_BATCH = 400;
+
+    private static MessageOutbox instance;
+
+    public interface OnMessagesFailedListener {
+        void onMessagesFailed(String chatId, List<String> messageIds);
+    }
+
+    private final OutboxDao dao;
+    private final FirestoreService firestoreService;
+    private final ConnectivityManager connectivityManager;
+    // Room forbids main-thread access; one thread keeps inserts and deletes in order
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Main thread only
+    private boolean draining = false;
+    private long backoffMs = INITIAL_BACKOFF_MS;
+    private final Runnable retry = this::drain;
+    private final List<OnMessagesFailedListener> failedListeners = new ArrayList<>();
+
+    private MessageOutbox(Context context) {
+        dao = OutboxDatabase.getInstance(context).outboxDao();
+        firestoreService = FirestoreService.getInstance();
+        connectivityManager = context.getApplicationContext().getSystemService(ConnectivityManager.class);
+        connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(@NonNull Network network) {
+                // Back online: skip whatever backoff is pending and send now
+                mainHandler.post(() -> {
+                    mainHandler.removeCallbacks(retry);
+                    backoffMs = INITIAL_BACKOFF_MS;
+                    drain();
+                });
+            }
+        });
+        // Messages left over from a previous run
+        mainHandler.post(this::drain);
+    }
+
+    public static synchronized MessageOutbox getInstance(Context context) {
+        if (instance == null) {
+            instance = new MessageOutbox(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Queues the message and starts sending it. The message gets its final document id here,
+     * so the returned copy can be shown at once and later matched with the Firestore snapshot.
+     */
+    public Message enqueue(String chatId, Message message) {
+        message.setMessageId(firestoreService.newMessageId());
+        message.setPending(true);
+        OutboxMessageEntity entity = OutboxMessageEntity.fromMessage(chatId, message, System.currentTimeMillis());
+        executor.execute(() -> {
+            try {
+                dao.insert(entity);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error queueing message " + entity.messageId, e);
+            }
+            mainHandler.post(this::drain);
+        });
+        return message;
+    }
+
+    // Main thread only
+    public void addOnMessagesFailedListener(OnMessagesFailedListener listener) {
+        failedListeners.add(listener);
+    }
+
+    public void removeOnMessagesFailedListener(OnMessagesFailedListener listener) {
+        failedListeners.remove(listener);
+    }
+
+    // Puts a failed message back in the send queue
+    public void retry(String messageId) {
+        executor.execute(() -> {
+            try {
+                dao.markQueued(messageId);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error requeueing message " + messageId, e);
+            }
+            mainHandler.post(this::drain);
+        });
+    }
+
+    public void discard(String messageId) {
+        executor.execute(() -> {
+            try {
+                dao.delete(Collections.singletonList(messageId));
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error discarding message " + messageId, e);
+            }
+        });
+    }
+
+    // Queued and failed messages for the chat, oldest first
+    public void getPendingMessages(String chatId, FirestoreService.OnCompleteListener<List<Message>> listener) {
+        executor.execute(() -> {
+            List<Message> messages = new ArrayList<>();
+            try {
+                for (OutboxMessageEntity entity : dao.getForChat(chatId)) {
+                    messages.add(entity.toMessage());
+                }
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error reading outbox for chat " + chatId, e);
+            }
+            mainHandler.post(() -> listener.onComplete(messages));
+        });
+    }
+
+    // Sends one batch at a time; each success immediately starts the next
+    private void drain() {
+        // Signed out, every write would be rejected; the queue waits for the next sign-in
+        if (draining || !isOnline() || firestoreService.getCurrentUserId() == null) return;
+        draining = true;
+        executor.execute(() -> {
+            List<OutboxMessageEntity> queued;
+            try {
+                queued = dao.getQueued();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error reading outbox", e);
+                queued = new ArrayList<>();
+            }
+            List<OutboxMessageEntity> burst = nextBurst(queued);
+            mainHandler.post(() -> send(burst));
+        });
+    }
+
+    // The oldest queued message and every later one for the same chat, in order
+    private static List<OutboxMessageEntity> nextBurst(List<OutboxMessageEntity> queued) {
+        List<OutboxMessageEntity> burst = new ArrayList<>();
+        if (queued.isEmpty()) return burst;
+        String chatId = queued.get(0).chatId;
+        for (OutboxMessageEntity entity : queued) {
+            if (burst.size() == MAX_MESSAGES_PER_BATCH) break;
+            if (chatId != null && chatId.equals(entity.chatId)) {
+                burst.add(entity);
+            }
+        }
+        return burst;
+    }
+
+    private void send(List<OutboxMessageEntity> burst) {
+        if (burst.isEmpty()) {
+            draining = false;
+            return;
+        }
+        String chatId = burst.get(0).chatId;
+        List<Message> messages = new ArrayList<>();
+        List<String> messageIds = new ArrayList<>();
+        for (OutboxMessageEntity entity : burst) {
+            Message message = entity.toMessage();
+            message.setPending(false);
+            messages.add(message);
+            messageIds.add(entity.messageId);
+        }
+
+        firestoreService.sendMessagesAsync(chatId, messages).addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                backoffMs = INITIAL_BACKOFF_MS;
+                executor.execute(() -> {
+                    try {
+                        dao.delete(messageIds);
+                    } catch (RuntimeException e) {
+                        Log.e(TAG, "Error removing sent messages", e);
+                    }
+                    mainHandler.post(() -> {
+                        draining = false;
+                        drain();
+                    });
+                });
+                return;
+            }
+
+            draining = false;
+            FirestoreServiceException failure = FirestoreServiceException.from(task.getException());
+            if (isPermanent(failure.getReason())) {
+                // Retrying on its own cannot fix these; set them aside so the rest of the queue moves on
+                Log.e(TAG, "Marking undeliverable messages for chat " + chatId + " as failed", failure);
+                executor.execute(() -> {
+                    try {
+                        dao.markFailed(messageIds);
+                    } catch (RuntimeException e) {
+                        Log.e(TAG, "Error marking undeliverable messages", e);
+                    }
+                    mainHandler.post(() -> {
+                        for (OnMessagesFailedListener listener : new ArrayList<>(failedListeners)) {
+                            listener.onMessagesFailed(chatId, messageIds);
+                        }
+                        drain();
+                    });
+                });
+                return;
+            }
+            Log.w(TAG, "Send failed, retrying in " + backoffMs + " ms", failure);
+            mainHandler.removeCallbacks(retry);
+            mainHandler.postDelayed(retry, backoffMs);
+            backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+        });
+    }
+
+    // The chat is gone, the sender is no longer in it, or the message itself is malformed
+    private static boolean isPermanent(FirestoreServiceException.Reason reason) {
+        return reason == FirestoreServiceException.Reason.INVALID_ARGUMENT
+                || reason == FirestoreServiceException.Reason.NOT_FOUND
+                || reason == FirestoreServiceException.Reason.PERMISSION_DENIED;
+    }
+
+    private boolean isOnline() {
+        NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities(connectivityManager.getActiveNetwork());
+        return capabilities != null && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+    }
+}
@@ -0,0 +1,31 @@
+package com.chotujobs.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao
+public interface OutboxDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(OutboxMessageEntity message);
+
+    // Send order: oldest first across every chat, skipping failed messages
+    @Query("SELECT * FROM outbox_messages WHERE failed = 0 ORDER BY created_at ASC")
+    List<OutboxMessageEntity> getQueued();
+
+    // Queued and failed alike, for the chat screen
+    @Query("SELECT * FROM outbox_messages WHERE chat_id = :chatId ORDER BY created_at ASC")
+    List<OutboxMessageEntity> getForChat(String chatId);
+
+    @Query("UPDATE outbox_messages SET failed = 1 WHERE message_id IN (:messageIds)")
+    void markFailed(List<String> messageIds);
+
+    @Query("UPDATE outbox_messages SET failed = 0 WHERE message_id = :messageId")
+    void markQueued(String messageId);
+
+    @Query("DELETE FROM outbox_messages WHERE message_id IN (:messageIds)")
+    void delete(List<String> messageIds);
+}
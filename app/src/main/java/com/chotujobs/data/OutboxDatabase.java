@@ -0,0 +1,32 @@
+package com.chotujobs.data;
+
+import android.content.Context;
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+/**
+ * Holds messages the user wrote that have not reached Firestore. Kept apart from AppDatabase
+ * because that mirror is wiped on every schema change, and unsent messages cannot be rebuilt
+ * from the server. Schema changes here need a real Migration.
+ */
+@Database(entities = {OutboxMessageEntity.class}, version = 1, exportSchema = false)
+public abstract class OutboxDatabase extends RoomDatabase {
+
+    private static final String DATABASE_NAME = "outbox.db";
+    private static volatile OutboxDatabase instance;
+
+    public abstract OutboxDao outboxDao();
+
+    public static OutboxDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (OutboxDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(), OutboxDatabase.class, DATABASE_NAME)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
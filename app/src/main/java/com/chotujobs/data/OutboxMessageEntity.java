@@ -0,0 +1,48 @@
+package com.chotujobs.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import com.chotujobs.models.Message;
+
+// A message the user has sent that Firestore has not acknowledged yet, or has refused for good
+@Entity(tableName = "outbox_messages", indices = {@Index({"chat_id", "created_at"})})
+public class OutboxMessageEntity {
+    // Client-generated Firestore document id; a retry finds a message that already reached the server and skips it
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "message_id")
+    public String messageId = "";
+    @ColumnInfo(name = "chat_id")
+    public String chatId;
+    @ColumnInfo(name = "sender_id")
+    public String senderId;
+    @ColumnInfo(name = "receiver_id")
+    public String receiverId;
+    public String message;
+    @ColumnInfo(name = "created_at")
+    public long createdAt;
+    // Rejected by Firestore; kept out of the send queue until the user retries or discards it
+    public boolean failed;
+
+    public static OutboxMessageEntity fromMessage(String chatId, Message message, long createdAt) {
+        OutboxMessageEntity entity = new OutboxMessageEntity();
+        entity.messageId = message.getMessageId();
+        entity.chatId = chatId;
+        entity.senderId = message.getSenderId();
+        entity.receiverId = message.getReceiverId();
+        entity.message = message.getMessage();
+        entity.createdAt = createdAt;
+        return entity;
+    }
+
+    public Message toMessage() {
+        Message result = new Message(senderId, receiverId, message);
+        result.setMessageId(messageId);
+        result.setPending(true);
+        result.setFailed(failed);
+        return result;
+    }
+}
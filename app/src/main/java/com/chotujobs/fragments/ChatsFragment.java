@@ -11,39 +11,78 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 import com.chotujobs.adapters.ChatsAdapter;
+import com.chotujobs.adapters.ImageRequests;
+import com.chotujobs.data.DataRepository;
 import com.chotujobs.databinding.FragmentChatsBinding;
 import com.chotujobs.models.Chat;
+import com.chotujobs.models.ChatParticipant;
 import com.chotujobs.models.User;
+import com.chotujobs.services.FirestoreMetrics;
 import com.chotujobs.services.FirestoreService;
 import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.ListenerRegistration;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class ChatsFragment extends Fragment {
 
     private FragmentChatsBinding binding;
     private ChatsAdapter adapter;
     private List<Chat> chatList;
+    // Chat id -> position in chatList, rebuilt whenever the list is re-sorted
+    private Map<String, Integer> chatIndex;
     private Map<String, User> userMap;
     private FirestoreService firestoreService;
+    private DataRepository repository;
+    // False until the listener's first snapshot; until then the list shows the local mirror
+    private boolean chatsDelivered = false;
     private ListenerRegistration chatListener;
 
+    // Chats with unread messages first, then most recent; chats without a timestamp yet
+    // (pending server write) sort as the newest
+    private static Comparator<Chat> chatOrder(String userId) {
+        return (a, b) -> {
+            boolean leftUnread = a.getUnreadCount(userId) > 0;
+            boolean rightUnread = b.getUnreadCount(userId) > 0;
+            if (leftUnread != rightUnread) {
+                return leftUnread ? -1 : 1;
+            }
+            Date left = a.getLastMessageTimestamp();
+            Date right = b.getLastMessageTimestamp();
+            if (left == null || right == null) {
+                return left == right ? 0 : (left == null ? -1 : 1);
+            }
+            return right.compareTo(left);
+        };
+    }
+
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         binding = FragmentChatsBinding.inflate(inflater, container, false);
 
         firestoreService = FirestoreService.getInstance();
+        repository = DataRepository.getInstance(requireContext());
         chatList = new ArrayList<>();
+        chatIndex = new HashMap<>();
         userMap = new HashMap<>();
-        adapter = new ChatsAdapter(chatList, userMap);
+        adapter = new ChatsAdapter(userMap);
         binding.recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         binding.recyclerView.setAdapter(adapter);
+        int avatarSize = adapter.getAvatarSizePx();
+        binding.recyclerView.addOnScrollListener(new RecyclerViewPreloader<>(this, adapter,
+                new FixedPreloadSizeProvider<>(avatarSize, avatarSize), ImageRequests.PRELOAD_AHEAD_ITEMS));
 
         binding.swipeRefreshLayout.setOnRefreshListener(this::listenForChats);
 
@@ -58,11 +97,13 @@ public class ChatsFragment extends Fragment {
         }
         binding.swipeRefreshLayout.setRefreshing(true);
         chatList.clear();
+        chatIndex.clear();
         userMap.clear();
-        adapter.notifyDataSetChanged();
+        chatsDelivered = false;
 
         String currentUserId = firestoreService.getCurrentUserId();
         if (currentUserId == null) {
+            adapter.submitList(null);
             if (isAdded() && getContext() != null) {
                 Toast.makeText(getContext(), "You need to be logged in to view chats.", Toast.LENGTH_SHORT).show();
                 if (binding != null) {
@@ -71,8 +112,15 @@ public class ChatsFragment extends Fragment {
             }
             return;
         }
+        // Cold start: render last session's chats while the listener connects
+        repository.getMirroredChats(currentUserId, chats -> {
+            if (chatsDelivered || !isAdded() || binding == null || chats.isEmpty()) return;
+            adapter.submitList(chats);
+        });
+
         chatListener = firestoreService.getChatsForUser(currentUserId)
                 .addSnapshotListener((snapshots, e) -> {
+                    FirestoreMetrics.getInstance().recordSnapshot("getChatsForUser", snapshots, e);
                     if (!isAdded() || binding == null) return;
                     binding.swipeRefreshLayout.setRefreshing(false);
                     if (e != null) {
@@ -85,44 +133,66 @@ public class ChatsFragment extends Fragment {
 
                     if (snapshots == null) return;
 
-                    List<String> userIds = new ArrayList<>();
+                    chatsDelivered = true;
+                    Set<String> userIds = new HashSet<>();
+                    List<Chat> changedChats = new ArrayList<>();
+                    List<String> removedChatIds = new ArrayList<>();
+                    boolean removed = false;
                     for (DocumentChange dc : snapshots.getDocumentChanges()) {
-                        Chat chat = dc.getDocument().toObject(Chat.class);
+                        Chat chat = Chat.fromSnapshot(dc.getDocument());
                         if (chat == null || chat.getUserIds() == null) {
                             continue;
                         }
                         
                         String docId = dc.getDocument().getId();
-                        chat.setChatId(docId);
-                        
+
+                        if (dc.getType() != DocumentChange.Type.REMOVED) {
+                            changedChats.add(chat);
+                        }
                         switch (dc.getType()) {
                             case ADDED:
-                                if (!chatExists(docId)) {
+                                if (!chatIndex.containsKey(docId)) {
+                                    chatIndex.put(docId, chatList.size());
                                     chatList.add(chat);
                                     collectUserIds(chat, currentUserId, userIds);
                                 }
                                 break;
                             case MODIFIED:
-                                updateChat(docId, chat, currentUserId, userIds);
+                                Integer position = chatIndex.get(docId);
+                                if (position != null) {
+                                    chatList.set(position, chat);
+                                    collectUserIds(chat, currentUserId, userIds);
+                                }
                                 break;
                             case REMOVED:
-                                removeChat(docId);
+                                removedChatIds.add(docId);
+                                Integer index = chatIndex.remove(docId);
+                                if (index != null) {
+                                    // Null out rather than shift, so the other indexes stay valid until the rebuild
+                                    chatList.set(index, null);
+                                    removed = true;
+                                }
                                 break;
                         }
                     }
+                    if (removed) {
+                        chatList.removeAll(Collections.singleton(null));
+                    }
+                    repository.saveChats(currentUserId, changedChats);
+                    repository.removeChats(currentUserId, removedChatIds);
 
+                    // A new message moves its chat to the top of its group
+                    Collections.sort(chatList, chatOrder(currentUserId));
+                    rebuildChatIndex();
+                    adapter.submitList(new ArrayList<>(chatList));
+
+                    userIds.removeAll(userMap.keySet());
                     if (!userIds.isEmpty()) {
-                        firestoreService.getUsersByIds(userIds, users -> {
+                        firestoreService.getUserMap(userIds, users -> {
                             if (!isAdded()) return;
-                            for (User user : users) {
-                                if (user != null && user.getUserId() != null) {
-                                    userMap.put(user.getUserId(), user);
-                                }
-                            }
-                            adapter.notifyDataSetChanged();
+                            userMap.putAll(users);
+                            adapter.notifyUsersLoaded(users.keySet());
                         });
-                    } else {
-                        adapter.notifyDataSetChanged();
                     }
                 });
     }
@@ -136,38 +206,20 @@ public class ChatsFragment extends Fragment {
         binding = null;
     }
 
-    private boolean chatExists(String chatId) {
-        for (Chat c : chatList) {
-            if (chatId.equals(c.getChatId())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private void updateChat(String chatId, Chat chat, String currentUserId, List<String> userIds) {
+    private void rebuildChatIndex() {
+        chatIndex.clear();
         for (int i = 0; i < chatList.size(); i++) {
-            if (chatId.equals(chatList.get(i).getChatId())) {
-                chatList.set(i, chat);
-                collectUserIds(chat, currentUserId, userIds);
-                break;
-            }
-        }
-    }
-
-    private void removeChat(String chatId) {
-        for (int i = 0; i < chatList.size(); i++) {
-            if (chatId.equals(chatList.get(i).getChatId())) {
-                chatList.remove(i);
-                break;
-            }
+            chatIndex.put(chatList.get(i).getChatId(), i);
         }
     }
 
-    private void collectUserIds(Chat chat, String currentUserId, List<String> userIds) {
+    // Only users without a participant summary on the chat need their profile read
+    private void collectUserIds(Chat chat, String currentUserId, Set<String> userIds) {
         if (chat.getUserIds() != null) {
+            Map<String, ChatParticipant> participants = chat.getParticipants();
             for (String userId : chat.getUserIds()) {
-                if (userId != null && !userId.equals(currentUserId)) {
+                if (userId != null && !userId.equals(currentUserId)
+                        && (participants == null || !participants.containsKey(userId))) {
                     userIds.add(userId);
                 }
             }
@@ -16,6 +16,7 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import com.chotujobs.CreateJobActivity;
 import com.chotujobs.adapters.ContractorJobAdapter;
+import com.chotujobs.data.DataRepository;
 import com.chotujobs.databinding.FragmentContractorBinding;
 import com.chotujobs.models.Job;
 import com.chotujobs.services.FirestoreService;
@@ -25,6 +26,7 @@ public class ContractorFragment extends Fragment {
     private FragmentContractorBinding binding;
     private ContractorJobAdapter adapter;
     private FirestoreService firestoreService;
+    private DataRepository repository;
     private String currentUserId;
     private ActivityResultLauncher<Intent> createJobLauncher;
 
@@ -34,6 +36,7 @@ public class ContractorFragment extends Fragment {
         binding = FragmentContractorBinding.inflate(inflater, container, false);
 
         firestoreService = FirestoreService.getInstance();
+        repository = DataRepository.getInstance(requireContext());
         SharedPreferences prefs = requireContext().getSharedPreferences("chotujobs_prefs", 0);
         String authUserId = firestoreService.getCurrentUserId();
         currentUserId = authUserId != null ? authUserId : prefs.getString("user_id", "");
@@ -65,11 +68,17 @@ public class ContractorFragment extends Fragment {
 
     private void loadJobs() {
         binding.swipeRefreshLayout.setRefreshing(true);
-        firestoreService.getJobsByContractor(currentUserId, jobs -> {
+        // Mirrored jobs render immediately, then the Firestore result replaces them
+        repository.getJobsByContractor(currentUserId, FirestoreService.ReadPolicy.CACHE_THEN_SERVER, jobs -> {
             if (isAdded() && binding != null) {
                 binding.swipeRefreshLayout.setRefreshing(false);
                 if (jobs != null) {
-                    adapter.submitList(jobs);
+                    // Marks the end of startup for the startup benchmarks; later calls are ignored
+                    adapter.submitList(jobs, () -> {
+                        if (getActivity() != null) {
+                            getActivity().reportFullyDrawn();
+                        }
+                    });
                 }
             }
         });
@@ -10,21 +10,26 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.DialogFragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import com.chotujobs.adapters.BidAdapter;
+import com.chotujobs.data.DataRepository;
 import com.chotujobs.databinding.DialogJobDetailsBinding;
 import com.chotujobs.models.Bid;
 import com.chotujobs.models.Job;
 import com.chotujobs.models.User;
 import com.chotujobs.services.FirestoreService;
-import java.util.ArrayList;
+import com.chotujobs.services.FirestoreServiceException;
+import com.google.android.gms.tasks.Task;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class JobDetailsDialogFragment extends DialogFragment {
 
     private DialogJobDetailsBinding binding;
     private String jobId;
     private FirestoreService firestoreService;
+    private DataRepository repository;
     private Runnable jobClosedListener;
     private Job currentJob;
     private List<Bid> allBids;
@@ -50,6 +55,7 @@ public class JobDetailsDialogFragment extends DialogFragment {
         if (getContext() == null) {
             return super.onCreateDialog(savedInstanceState);
         }
+        repository = DataRepository.getInstance(getContext());
 
         if (jobId == null || jobId.isEmpty()) {
             dismiss();
@@ -69,7 +75,8 @@ public class JobDetailsDialogFragment extends DialogFragment {
 
     private void loadJobAndBids() {
         binding.progressBar.setVisibility(View.VISIBLE);
-        firestoreService.getJobById(jobId, job -> {
+        // The job and its bids are independent reads; both render from local data first and again from the server
+        firestoreService.getJobById(jobId, FirestoreService.ReadPolicy.CACHE_THEN_SERVER, job -> {
             if (!isAdded()) return;
             if (job != null) {
                 currentJob = job;
@@ -85,19 +92,19 @@ public class JobDetailsDialogFragment extends DialogFragment {
                         dialog.setTitle("Job Details (Closed)");
                     }
                 }
-
-                firestoreService.getBidsByJob(jobId, bids -> {
-                    if (!isAdded()) return;
-                    if (bids != null) {
-                        allBids = bids;
-                        loadUsersAndDisplayBids();
-                    }
-                });
             } else {
                 Toast.makeText(getContext(), "Error loading job", Toast.LENGTH_SHORT).show();
                 dismiss();
             }
         });
+
+        repository.getBidsByJob(jobId, FirestoreService.ReadPolicy.CACHE_THEN_SERVER, bids -> {
+            if (!isAdded()) return;
+            if (bids != null) {
+                allBids = bids;
+                loadUsersAndDisplayBids();
+            }
+        });
     }
 
     private void loadUsersAndDisplayBids() {
@@ -106,21 +113,21 @@ public class JobDetailsDialogFragment extends DialogFragment {
             return;
         }
 
-        List<String> userIds = new ArrayList<>();
+        Set<String> userIds = new HashSet<>();
         for (Bid bid : allBids) {
-            if (bid != null && bid.getBidderId() != null && !bid.getBidderId().isEmpty()) {
-            userIds.add(bid.getBidderId());
+            if (bid == null) continue;
+            if (bid.getBidderId() != null && !bid.getBidderId().isEmpty()) {
+                userIds.add(bid.getBidderId());
+            }
+            if (bid.getLabourerIdIfAgent() != null && !bid.getLabourerIdIfAgent().isEmpty()) {
+                userIds.add(bid.getLabourerIdIfAgent());
             }
         }
 
-        firestoreService.getUsersByIds(userIds, users -> {
+        firestoreService.getUserMap(userIds, users -> {
             if (!isAdded()) return;
             userMap.clear();
-            for (User user : users) {
-                if (user != null && user.getUserId() != null) {
-                userMap.put(user.getUserId(), user);
-                }
-            }
+            userMap.putAll(users);
             displayBids();
         });
     }
@@ -168,13 +175,17 @@ public class JobDetailsDialogFragment extends DialogFragment {
                 .setTitle("Confirm Rejection")
                 .setMessage("Are you sure you want to reject this bid?")
                 .setPositiveButton("Yes", (dialog, which) -> {
-                    firestoreService.updateBidStatus(jobId, bid.getBidId(), "rejected", success -> {
+                    // With the job loaded, ownership is already known and the reject is a single write
+                    Task<Void> reject = currentJob != null
+                            ? firestoreService.updateBidStatusAsync(currentJob, bid, "rejected")
+                            : firestoreService.updateBidStatusAsync(jobId, bid.getBidId(), "rejected");
+                    reject.addOnCompleteListener(task -> {
                         if (!isAdded()) return;
-                        if (success) {
+                        if (task.isSuccessful()) {
                             Toast.makeText(getContext(), "Bid rejected", Toast.LENGTH_SHORT).show();
                             loadJobAndBids();
                         } else {
-                            Toast.makeText(getContext(), "Error rejecting bid", Toast.LENGTH_SHORT).show();
+                            Toast.makeText(getContext(), failureMessage(task.getException(), "Error rejecting bid"), Toast.LENGTH_SHORT).show();
                         }
                     });
                 })
@@ -233,121 +244,68 @@ public class JobDetailsDialogFragment extends DialogFragment {
             return;
         }
         
+        String jobContractorId = currentJob.getContractorId();
+        if (jobContractorId == null || !jobContractorId.trim().equals(currentUserId.trim())) {
+            Toast.makeText(getContext(), "You can only accept bids for jobs you created", Toast.LENGTH_LONG).show();
+            return;
+        }
+        
         binding.progressBar.setVisibility(View.VISIBLE);
         
-        firestoreService.getJobById(jobId, freshJob -> {
+        // Pending bids are re-read from the server, so every one of them is resolved with the job
+        firestoreService.selectWinningBidAsync(jobId, acceptedBidId).addOnCompleteListener(task -> {
             if (!isAdded()) return;
             binding.progressBar.setVisibility(View.GONE);
-            
-            if (freshJob == null) {
-                Toast.makeText(getContext(), "Error: Job not found", Toast.LENGTH_SHORT).show();
+            if (!task.isSuccessful()) {
+                Toast.makeText(getContext(), failureMessage(task.getException(), "Error marking winner"), Toast.LENGTH_LONG).show();
                 return;
             }
             
-            String jobContractorId = freshJob.getContractorId();
-            if (jobContractorId == null || jobContractorId.isEmpty()) {
-                Toast.makeText(getContext(), "Job has no owner information", Toast.LENGTH_SHORT).show();
-                return;
-            }
-            
-            if (!jobContractorId.trim().equals(currentUserId.trim())) {
-                Toast.makeText(getContext(), "You can only accept bids for jobs you created", Toast.LENGTH_LONG).show();
-                return;
-            }
-            
-            currentJob = freshJob;
-            
-            firestoreService.updateBidStatus(jobId, acceptedBidId, "accepted", success -> {
-                if (!isAdded()) return;
-                if (!success) {
-                    Toast.makeText(getContext(), "Error marking winner. Please check if you own this job and the bid exists.", Toast.LENGTH_LONG).show();
-                    return;
-                }
-                
-                rejectOtherBids(acceptedBidId, labourerId, winningBid);
-            });
+            currentJob.setStatus("closed");
+            currentJob.setWinnerUserId(labourerId);
+            notifyWinner(winningBid);
         });
     }
     
-    private void rejectOtherBids(String acceptedBidId, String winnerId, Bid winningBid) {
-        if (allBids == null || allBids.isEmpty()) {
-            closeJobAndNotify(winnerId, winningBid);
-            return;
-        }
+    private void notifyWinner(Bid winningBid) {
+        String contractorId = currentJob.getContractorId();
+        String jobTitle = currentJob.getTitle() != null ? currentJob.getTitle() : "";
         
-        int pendingCount = 0;
-        for (Bid bid : allBids) {
-            if (bid != null && bid.getBidId() != null &&
-                !bid.getBidId().equals(acceptedBidId) &&
-                "pending".equals(bid.getStatus())) {
-                pendingCount++;
+        firestoreService.notifyBidAccepted(contractorId, winningBid, jobTitle, notified -> {
+            if (!isAdded()) return;
+            
+            String message = "✅ Winner selected!";
+            if (notified) {
+                message += "\n📧 Labourer notified successfully!";
+            } else {
+                message += "\n⚠️ Failed to notify labourer";
             }
-        }
-        
-        final int finalPendingCount = pendingCount;
-        if (finalPendingCount == 0) {
-            closeJobAndNotify(winnerId, winningBid);
-            return;
-        }
-        
-        int[] rejectedCount = {0};
-        for (Bid bid : allBids) {
-            if (bid != null && bid.getBidId() != null &&
-                !bid.getBidId().equals(acceptedBidId) &&
-                "pending".equals(bid.getStatus())) {
-                
-                String bidIdToReject = bid.getBidId();
-                firestoreService.updateBidStatus(jobId, bidIdToReject, "rejected", success -> {
-                    rejectedCount[0]++;
-                    if (rejectedCount[0] == finalPendingCount) {
-                        closeJobAndNotify(winnerId, winningBid);
-                    }
-                });
+            
+            new AlertDialog.Builder(requireContext())
+                    .setTitle("✅ Job Completed")
+                    .setMessage(message)
+                    .setPositiveButton("OK", (dialog, which) -> dismiss())
+                    .show();
+            
+            if (jobClosedListener != null) {
+                jobClosedListener.run();
             }
-        }
+        });
     }
-    
-    private void closeJobAndNotify(String winnerId, Bid winningBid) {
-        if (winningBid == null) {
-            Toast.makeText(getContext(), "Error: Winning bid is missing", Toast.LENGTH_SHORT).show();
-            return;
+
+    private String failureMessage(Exception e, String fallback) {
+        switch (FirestoreServiceException.from(e).getReason()) {
+            case FAILED_PRECONDITION:
+                return "The job is no longer active or the bid is no longer pending";
+            case NOT_FOUND:
+                return "This bid no longer exists";
+            case PERMISSION_DENIED:
+                return "You can only manage bids for jobs you created";
+            case UNAVAILABLE:
+                return "You're offline. Please try again when connected";
+            default:
+                return fallback;
         }
-        
-        firestoreService.updateJobStatus(jobId, "closed", winnerId, updateSuccess -> {
-                        if (!isAdded()) return;
-            if (!updateSuccess) {
-                Toast.makeText(getContext(), "Error closing job", Toast.LENGTH_SHORT).show();
-                return;
-            }
-            
-            String contractorId = currentJob.getContractorId();
-            String jobTitle = currentJob.getTitle() != null ? currentJob.getTitle() : "";
-            
-            if (contractorId != null && !contractorId.isEmpty()) {
-                firestoreService.notifyBidAccepted(contractorId, winningBid, jobTitle, notified -> {
-                                if (!isAdded()) return;
-                    
-                    String message = "✅ Winner selected!";
-                    if (notified) {
-                        message += "\n📧 Labourer notified successfully!";
-                    } else {
-                        message += "\n⚠️ Failed to notify labourer";
-                    }
-                    
-                    new AlertDialog.Builder(requireContext())
-                            .setTitle("✅ Job Completed")
-                            .setMessage(message)
-                            .setPositiveButton("OK", (dialog, which) -> dismiss())
-                            .show();
-                                    
-                                    if (jobClosedListener != null) {
-                                        jobClosedListener.run();
-                                }
-                            });
-                        } else {
-                Toast.makeText(getContext(), "Error: Missing contractor information", Toast.LENGTH_SHORT).show();
-                        }
-                    });
     }
 
     private String buildJobDetails(Job job) {
@@ -1,34 +1,108 @@
 package com.chotujobs.fragments;
 
+import android.Manifest;
+import android.annotation.SuppressLint;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.location.Location;
+import android.location.LocationManager;
 import android.os.Bundle;
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.inputmethod.EditorInfo;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.core.location.LocationManagerCompat;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.chotujobs.ChatActivity;
+import com.chotujobs.R;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
+import com.chotujobs.adapters.ImageRequests;
 import com.chotujobs.adapters.JobAdapter;
+import com.chotujobs.data.DataRepository;
 import com.chotujobs.databinding.FragmentJobsListBinding;
 import com.chotujobs.models.Job;
+import com.chotujobs.models.JobFilter;
 import com.chotujobs.services.FirestoreService;
+import com.chotujobs.services.JobSearchIndex;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class JobsListFragment extends Fragment implements JobAdapter.OnJobClickListener {
 
     private static final String ARG_USER_ROLE = "user_role";
+    private static final int PAGE_SIZE = FirestoreService.DEFAULT_JOB_PAGE_SIZE;
+    // Start fetching the next page when this many items remain below the viewport
+    private static final int LOAD_MORE_THRESHOLD = 5;
+    private static final int SEARCH_RESULT_LIMIT = 50;
+    private static final double NEARBY_RADIUS_KM = 10.0;
+    private static final long LOCATION_MAX_AGE_MS = 5 * 60 * 1000;
+    private static final long LOCATION_TIMEOUT_MS = 15 * 1000;
 
     private FragmentJobsListBinding binding;
     private JobAdapter adapter;
     private FirestoreService firestoreService;
+    private JobSearchIndex searchIndex;
+    private DataRepository repository;
     private String currentUserId;
     private String userRole;
 
+    // Every job currently in the feed, keyed by id so each DocumentChange is applied in O(1)
+    private final Map<String, Job> feedJobs = new HashMap<>();
+    private final List<FeedPage> feedPages = new ArrayList<>();
+    private final Set<String> newJobIds = new HashSet<>();
+    private ListenerRegistration newJobsListener;
+    // Jobs posted after this instant are delivered by newJobsListener, everything older by the page listeners
+    private long feedAnchorMillis;
+    private boolean isLoadingJobs = false;
+    // False until the live feed delivers; until then the list shows the local mirror
+    private boolean feedDelivered = false;
+    private JobFilter jobFilter = JobFilter.NONE;
+    // Non-empty while the list shows local search results instead of the live feed
+    private String searchQuery = "";
+    // While on, the list shows active jobs near the device, nearest first
+    private boolean nearMeActive = false;
+    private List<Job> nearbyJobs = new ArrayList<>();
+    private ActivityResultLauncher<String[]> locationPermissionLauncher;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private CancellationSignal locationRequest;
+
+    private static class FeedPage {
+        ListenerRegistration registration;
+        DocumentSnapshot lastDocument;
+        boolean hasMore = true;
+        boolean settled = false;
+        final Set<String> jobIds = new HashSet<>();
+    }
+
     public static JobsListFragment newInstance(String userRole) {
         JobsListFragment fragment = new JobsListFragment();
         Bundle args = new Bundle();
@@ -43,6 +117,18 @@ public class JobsListFragment extends Fragment implements JobAdapter.OnJobClickL
         if (getArguments() != null) {
             userRole = getArguments().getString(ARG_USER_ROLE);
         }
+        locationPermissionLauncher = registerForActivityResult(
+                new ActivityResultContracts.RequestMultiplePermissions(),
+                grants -> {
+                    if (hasLocationPermission()) {
+                        loadNearbyJobs();
+                    } else {
+                        setNearMeActive(false);
+                        if (getContext() != null) {
+                            Toast.makeText(getContext(), "Location permission is needed to find jobs near you", Toast.LENGTH_SHORT).show();
+                        }
+                    }
+                });
     }
 
     @Nullable
@@ -51,6 +137,8 @@ public class JobsListFragment extends Fragment implements JobAdapter.OnJobClickL
         binding = FragmentJobsListBinding.inflate(inflater, container, false);
 
         firestoreService = FirestoreService.getInstance();
+        searchIndex = JobSearchIndex.getInstance(requireContext());
+        repository = DataRepository.getInstance(requireContext());
         SharedPreferences prefs = requireContext().getSharedPreferences("chotujobs_prefs", 0);
         String authUserId = firestoreService.getCurrentUserId();
         currentUserId = authUserId != null ? authUserId : prefs.getString("user_id", "");
@@ -59,31 +147,400 @@ public class JobsListFragment extends Fragment implements JobAdapter.OnJobClickL
             userRole = prefs.getString("user_role", "");
         }
 
-        binding.recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        binding.recyclerView.setLayoutManager(layoutManager);
 
         adapter = new JobAdapter(userRole, this);
         binding.recyclerView.setAdapter(adapter);
+        // Decodes the next cards' images before they scroll into view
+        int[] imageSize = adapter.getImageSize();
+        binding.recyclerView.addOnScrollListener(new RecyclerViewPreloader<>(this, adapter,
+                new FixedPreloadSizeProvider<>(imageSize[0], imageSize[1]), ImageRequests.PRELOAD_AHEAD_ITEMS));
+        binding.recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0 || !searchQuery.isEmpty() || nearMeActive) return;
+                if (isNearEndOfFeed()) {
+                    loadNextPage();
+                }
+            }
+        });
 
+        setupFilterBar();
         loadJobs();
 
-        binding.swipeRefreshLayout.setOnRefreshListener(this::loadJobs);
+        binding.swipeRefreshLayout.setOnRefreshListener(() -> {
+            loadJobs();
+            if (nearMeActive) {
+                loadNearbyJobs();
+            }
+        });
 
         return binding.getRoot();
     }
 
+    private void setupFilterBar() {
+        List<String> categories = new ArrayList<>();
+        categories.add("All categories");
+        categories.addAll(JobFilter.CATEGORIES);
+        binding.categoryFilterSpinner.setAdapter(createFilterAdapter(categories));
+
+        List<String> budgets = new ArrayList<>();
+        budgets.add("Any budget");
+        for (JobFilter.BudgetBand band : JobFilter.BudgetBand.values()) {
+            budgets.add(band.getLabel());
+        }
+        binding.budgetFilterSpinner.setAdapter(createFilterAdapter(budgets));
+
+        AdapterView.OnItemSelectedListener onSelected = new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                applyFilter();
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+            }
+        };
+        binding.categoryFilterSpinner.setOnItemSelectedListener(onSelected);
+        binding.budgetFilterSpinner.setOnItemSelectedListener(onSelected);
+
+        binding.searchEditText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence text, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence text, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable text) {
+                searchQuery = text.toString().trim();
+                submitFeed();
+            }
+        });
+
+        binding.nearMeButton.setOnClickListener(v -> {
+            if (nearMeActive) {
+                setNearMeActive(false);
+                cancelLocationRequest();
+                if (!isLoadingJobs) {
+                    binding.progressBar.setVisibility(View.GONE);
+                }
+                submitFeed();
+            } else if (hasLocationPermission()) {
+                loadNearbyJobs();
+            } else {
+                locationPermissionLauncher.launch(new String[]{
+                        Manifest.permission.ACCESS_COARSE_LOCATION, Manifest.permission.ACCESS_FINE_LOCATION});
+            }
+        });
+
+        binding.locationFilterEditText.setOnEditorActionListener((v, actionId, event) -> {
+            if (actionId == EditorInfo.IME_ACTION_SEARCH) {
+                applyFilter();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private ArrayAdapter<String> createFilterAdapter(List<String> items) {
+        ArrayAdapter<String> filterAdapter = new ArrayAdapter<String>(requireContext(), android.R.layout.simple_spinner_item, items) {
+            @Override
+            public View getView(int position, View convertView, ViewGroup parent) {
+                TextView textView = (TextView) super.getView(position, convertView, parent);
+                textView.setTextColor(getResources().getColor(R.color.design_default_color_on_surface, null));
+                return textView;
+            }
+
+            @Override
+            public View getDropDownView(int position, View convertView, ViewGroup parent) {
+                View view = super.getDropDownView(position, convertView, parent);
+                ((TextView) view).setTextColor(getResources().getColor(R.color.design_default_color_on_surface, null));
+                view.setBackgroundColor(getResources().getColor(R.color.design_default_color_surface, null));
+                return view;
+            }
+        };
+        filterAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        return filterAdapter;
+    }
+
+    private void applyFilter() {
+        if (binding == null) return;
+        JobFilter.Builder builder = new JobFilter.Builder();
+        // Position 0 of each spinner is the "any" entry
+        if (binding.categoryFilterSpinner.getSelectedItemPosition() > 0) {
+            builder.category(binding.categoryFilterSpinner.getSelectedItem().toString());
+        }
+        int budgetPosition = binding.budgetFilterSpinner.getSelectedItemPosition();
+        if (budgetPosition > 0) {
+            builder.budgetBand(JobFilter.BudgetBand.values()[budgetPosition - 1]);
+        }
+        if (binding.locationFilterEditText.getText() != null) {
+            builder.location(binding.locationFilterEditText.getText().toString());
+        }
+
+        JobFilter filter = builder.build();
+        // Spinners report their initial selection too; only a real change restarts the feed
+        if (filter.equals(jobFilter)) return;
+        jobFilter = filter;
+        loadJobs();
+    }
+
     private void loadJobs() {
         if (binding == null) return;
+        stopListening();
+        feedJobs.clear();
+        newJobIds.clear();
+        feedAnchorMillis = System.currentTimeMillis();
+        feedDelivered = false;
         binding.swipeRefreshLayout.setRefreshing(true);
-        firestoreService.getAllActiveJobs(jobs -> {
-            if (isAdded() && binding != null) {
+        showMirroredJobs();
+
+        newJobsListener = firestoreService.listenForNewActiveJobs(jobFilter, feedAnchorMillis, changes -> {
+            if (changes == null) return;
+            applyChanges(changes, newJobIds, null);
+        });
+        loadNextPage();
+    }
+
+    // Cold start: show the jobs mirrored last session while the first page is on its way
+    private void showMirroredJobs() {
+        if (!jobFilter.isEmpty()) return;
+        long anchor = feedAnchorMillis;
+        repository.getMirroredActiveJobs(PAGE_SIZE, jobs -> {
+            if (anchor != feedAnchorMillis || feedDelivered || !searchQuery.isEmpty()
+                    || !isAdded() || binding == null || jobs.isEmpty()) return;
+            adapter.submitList(jobs);
+        });
+    }
+
+    private void loadNextPage() {
+        if (binding == null || isLoadingJobs) return;
+        FeedPage previous = feedPages.isEmpty() ? null : feedPages.get(feedPages.size() - 1);
+        // The next page starts after this one's last document, which only the server snapshot confirms
+        if (previous != null && (!previous.settled || !previous.hasMore || previous.lastDocument == null)) return;
+
+        isLoadingJobs = true;
+        if (previous != null) {
+            binding.progressBar.setVisibility(View.VISIBLE);
+        }
+        FeedPage page = new FeedPage();
+        feedPages.add(page);
+        DocumentSnapshot startAfter = previous != null ? previous.lastDocument : null;
+        page.registration = firestoreService.listenForActiveJobsPage(jobFilter, feedAnchorMillis, startAfter, PAGE_SIZE, changes -> {
+            if (!feedPages.contains(page)) return;
+            if (feedPages.get(feedPages.size() - 1) == page) {
+                isLoadingJobs = false;
+            }
+            if (binding != null) {
                 binding.swipeRefreshLayout.setRefreshing(false);
-                if (jobs != null && !jobs.isEmpty()) {
-                    adapter.submitList(jobs);
+                binding.progressBar.setVisibility(View.GONE);
+            }
+            if (changes == null) {
+                if (isAdded() && getContext() != null) {
+                    Toast.makeText(getContext(), "Error loading jobs", Toast.LENGTH_SHORT).show();
                 }
+                return;
+            }
+            feedDelivered = true;
+            // The page's bounds are fixed by the first server snapshot; a cached one may still be partial
+            boolean settledNow = false;
+            if (!page.settled) {
+                page.lastDocument = changes.getLastDocument();
+                page.hasMore = changes.getDocumentCount() == PAGE_SIZE;
+                page.settled = !changes.isFromCache();
+                settledNow = page.settled;
+            }
+            applyChanges(changes, page.jobIds, page.settled ? page.lastDocument : null);
+            // A scroll to the end while this page was still unconfirmed was ignored; pick it up now
+            if (settledNow && searchQuery.isEmpty() && !nearMeActive && isNearEndOfFeed()) {
+                loadNextPage();
             }
         });
     }
 
+    private boolean isNearEndOfFeed() {
+        if (binding == null) return false;
+        LinearLayoutManager layoutManager = (LinearLayoutManager) binding.recyclerView.getLayoutManager();
+        return layoutManager != null
+                && layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - LOAD_MORE_THRESHOLD;
+    }
+
+    private void applyChanges(FirestoreService.JobChanges changes, Set<String> ownedJobIds, DocumentSnapshot pageEnd) {
+        // Every job the feed sees feeds the local search index, including backfill skipped below
+        searchIndex.indexJobsAsync(changes.getUpserted());
+        repository.saveJobs(changes.getUpserted());
+        Long pageEndTimestamp = pageEnd != null ? pageEnd.getLong("timestamp") : null;
+        for (Job job : changes.getUpserted()) {
+            // When a job in a full page closes, the limit query backfills the next older job.
+            // That job already belongs to the following page, so it is not claimed here.
+            if (!ownedJobIds.contains(job.getJobId()) && pageEndTimestamp != null
+                    && job.getTimestamp() != null && job.getTimestamp() < pageEndTimestamp) {
+                continue;
+            }
+            ownedJobIds.add(job.getJobId());
+            feedJobs.put(job.getJobId(), job);
+        }
+        List<String> removedJobIds = new ArrayList<>();
+        for (String jobId : changes.getRemovedJobIds()) {
+            if (ownedJobIds.remove(jobId)) {
+                feedJobs.remove(jobId);
+                removedJobIds.add(jobId);
+            }
+        }
+        searchIndex.removeJobsAsync(removedJobIds);
+        repository.markJobsClosed(removedJobIds);
+        submitFeed();
+    }
+
+    private void submitFeed() {
+        if (!isAdded() || binding == null) return;
+        if (!searchQuery.isEmpty()) {
+            submitSearchResults(searchQuery);
+            return;
+        }
+        if (nearMeActive) {
+            adapter.submitList(nearbyJobs);
+            return;
+        }
+        // Keep the mirrored jobs on screen until the first page replaces them
+        if (!feedDelivered) {
+            showMirroredJobs();
+            return;
+        }
+        List<Job> jobs = new ArrayList<>(feedJobs.values());
+        jobs.sort((a, b) -> Long.compare(
+                b.getTimestamp() != null ? b.getTimestamp() : 0L,
+                a.getTimestamp() != null ? a.getTimestamp() : 0L));
+        // The first real page marks the end of startup for the startup benchmarks; later calls are ignored
+        adapter.submitList(jobs, () -> {
+            if (getActivity() != null) {
+                getActivity().reportFullyDrawn();
+            }
+        });
+    }
+
+    private boolean hasLocationPermission() {
+        return getContext() != null && ContextCompat.checkSelfPermission(getContext(),
+                Manifest.permission.ACCESS_COARSE_LOCATION) == PackageManager.PERMISSION_GRANTED;
+    }
+
+    private void setNearMeActive(boolean active) {
+        nearMeActive = active;
+        if (binding != null) {
+            binding.nearMeButton.setChecked(active);
+        }
+    }
+
+    private void loadNearbyJobs() {
+        if (binding == null) return;
+        setNearMeActive(true);
+        binding.progressBar.setVisibility(View.VISIBLE);
+        findDeviceLocation(location -> {
+            if (!isAdded() || binding == null || !nearMeActive) return;
+            if (location == null) {
+                binding.progressBar.setVisibility(View.GONE);
+                setNearMeActive(false);
+                Toast.makeText(getContext(), "Could not determine your location", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            firestoreService.getJobsNear(location.getLatitude(), location.getLongitude(), NEARBY_RADIUS_KM, jobs -> {
+                if (!isAdded() || binding == null || !nearMeActive) return;
+                binding.progressBar.setVisibility(View.GONE);
+                if (jobs == null) {
+                    Toast.makeText(getContext(), "Error loading nearby jobs", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                nearbyJobs = jobs;
+                submitFeed();
+            });
+        });
+    }
+
+    // A fix from the last few minutes is good enough for a 10 km search; otherwise ask for a fresh one,
+    // giving up after LOCATION_TIMEOUT_MS or when the view goes away
+    @SuppressLint("MissingPermission")
+    private void findDeviceLocation(FirestoreService.OnCompleteListener<Location> listener) {
+        cancelLocationRequest();
+        LocationManager locationManager = requireContext().getSystemService(LocationManager.class);
+        if (locationManager == null) {
+            listener.onComplete(null);
+            return;
+        }
+        try {
+            Location best = null;
+            long oldestNanos = SystemClock.elapsedRealtimeNanos() - TimeUnit.MILLISECONDS.toNanos(LOCATION_MAX_AGE_MS);
+            for (String provider : locationManager.getProviders(true)) {
+                Location location = locationManager.getLastKnownLocation(provider);
+                if (location == null || location.getElapsedRealtimeNanos() < oldestNanos) continue;
+                if (best == null || location.getElapsedRealtimeNanos() > best.getElapsedRealtimeNanos()) {
+                    best = location;
+                }
+            }
+            if (best != null) {
+                listener.onComplete(best);
+                return;
+            }
+            String provider = locationManager.isProviderEnabled(LocationManager.NETWORK_PROVIDER)
+                    ? LocationManager.NETWORK_PROVIDER : LocationManager.GPS_PROVIDER;
+            if (!locationManager.isProviderEnabled(provider)) {
+                listener.onComplete(null);
+                return;
+            }
+            CancellationSignal request = new CancellationSignal();
+            locationRequest = request;
+            Runnable timeout = () -> {
+                if (locationRequest != request) return;
+                cancelLocationRequest();
+                listener.onComplete(null);
+            };
+            mainHandler.postDelayed(timeout, LOCATION_TIMEOUT_MS);
+            LocationManagerCompat.getCurrentLocation(locationManager, provider, request,
+                    ContextCompat.getMainExecutor(requireContext()), location -> {
+                        if (locationRequest != request) return;
+                        mainHandler.removeCallbacks(timeout);
+                        locationRequest = null;
+                        listener.onComplete(location);
+                    });
+        } catch (SecurityException e) {
+            cancelLocationRequest();
+            listener.onComplete(null);
+        }
+    }
+
+    private void cancelLocationRequest() {
+        mainHandler.removeCallbacksAndMessages(null);
+        if (locationRequest != null) {
+            locationRequest.cancel();
+            locationRequest = null;
+        }
+    }
+
+    private void submitSearchResults(String query) {
+        searchIndex.searchJobs(query, SEARCH_RESULT_LIMIT, results -> {
+            // Drop results for a query the user has already typed past
+            if (!isAdded() || binding == null || !query.equals(searchQuery)) return;
+            adapter.submitList(results);
+        });
+    }
+
+    private void stopListening() {
+        if (newJobsListener != null) {
+            newJobsListener.remove();
+            newJobsListener = null;
+        }
+        for (FeedPage page : feedPages) {
+            if (page.registration != null) {
+                page.registration.remove();
+            }
+        }
+        feedPages.clear();
+        isLoadingJobs = false;
+    }
+
     @Override
     public void onJobClick(Job job) {
         if (job == null || job.getJobId() == null || job.getJobId().isEmpty()) {
@@ -96,7 +553,6 @@ public class JobsListFragment extends Fragment implements JobAdapter.OnJobClickL
         BidDialogFragment dialog = BidDialogFragment.newInstance(job.getJobId(), currentUserId, userRole);
         dialog.setBidListener(() -> {
             if (isAdded()) {
-                loadJobs();
                 if (getContext() != null) {
                     Toast.makeText(getContext(), "Bid placed successfully!", Toast.LENGTH_SHORT).show();
                 }
@@ -138,6 +594,8 @@ public class JobsListFragment extends Fragment implements JobAdapter.OnJobClickL
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        stopListening();
+        cancelLocationRequest();
         binding = null;
     }
 }
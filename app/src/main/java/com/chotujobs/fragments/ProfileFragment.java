@@ -3,6 +3,7 @@ package com.chotujobs.fragments;
 import android.app.Activity;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.graphics.drawable.Drawable;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -16,13 +17,18 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
 import com.chotujobs.EditProfileActivity;
+import com.chotujobs.adapters.ImageRequests;
 import com.chotujobs.databinding.FragmentProfileBinding;
 import com.chotujobs.models.User;
 import com.chotujobs.services.FirestoreService;
 
 public class ProfileFragment extends Fragment {
 
+    private static final int PROFILE_IMAGE_DP = 120;
+
     private FragmentProfileBinding binding;
     private SharedPreferences prefs;
     private ActivityResultLauncher<Intent> editProfileLauncher;
@@ -75,9 +81,13 @@ public class ProfileFragment extends Fragment {
             
             // Load profile image
             if (user.getProfileImageUrl() != null && !user.getProfileImageUrl().isEmpty()) {
-                Glide.with(requireContext())
-                        .load(user.getProfileImageUrl())
-                        .placeholder(android.R.drawable.ic_menu_gallery)
+                int sizePx = ImageRequests.dpToPx(requireContext(), PROFILE_IMAGE_DP);
+                RequestManager glide = Glide.with(this);
+                RequestBuilder<Drawable> request = glide.load(user.getProfileImageUrl()).override(sizePx, sizePx);
+                if (user.getProfileThumbnailUrl() != null) {
+                    request = request.thumbnail(glide.load(user.getProfileThumbnailUrl()).override(sizePx, sizePx).circleCrop());
+                }
+                request.placeholder(android.R.drawable.ic_menu_gallery)
                         .error(android.R.drawable.ic_menu_gallery)
                         .circleCrop()
                         .into(binding.profileImageView);
@@ -0,0 +1,301 @@
+package com.chotujobs.services;
+
+import android.os.SystemClock;
+import android.util.Log;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.crashlytics.FirebaseCrashlytics;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.perf.FirebasePerformance;
+import com.google.firebase.perf.metrics.Trace;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-operation latency, document and failure accounting for FirestoreService. Every one-shot
+ * operation goes through {@link #track}; live listeners report each snapshot through
+ * {@link #recordSnapshot}. Each tracked call is also a Firebase Performance custom trace, and
+ * running totals are kept in Crashlytics keys so a crash report shows what the session cost.
+ */
+public final class FirestoreMetrics {
+
+    private static final String TAG = "FirestoreMetrics";
+    private static final String TRACE_PREFIX = "firestore_";
+
+    // Upper bounds of the latency buckets; anything slower lands in the last, open-ended bucket
+    private static final long[] BUCKET_UPPER_BOUNDS_MS = {50, 100, 250, 500, 1000, 2500, 5000};
+
+    private static final FirestoreMetrics instance = new FirestoreMetrics();
+
+    // Keyed by operation name, in first-use order
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+
+    private FirestoreMetrics() {}
+
+    public static FirestoreMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Times the task and, when it succeeds, counts the documents in its result: a QuerySnapshot
+     * is billed one read per document (one for an empty server result), a DocumentSnapshot one.
+     * Returns the same task so calls can be wrapped in place.
+     */
+    public <T> Task<T> track(String operation, Task<T> task) {
+        return track(operation, task, 0);
+    }
+
+    // Variant for writes, where the result carries no document count
+    public <T> Task<T> track(String operation, Task<T> task, int documentsWritten) {
+        long startMs = SystemClock.elapsedRealtime();
+        Trace trace = startTrace(operation);
+        task.addOnCompleteListener(done -> {
+            long latencyMs = SystemClock.elapsedRealtime() - startMs;
+            Object result = done.isSuccessful() ? done.getResult() : null;
+            int reads = 0;
+            Boolean fromCache = null;
+            if (result instanceof QuerySnapshot) {
+                QuerySnapshot snapshot = (QuerySnapshot) result;
+                fromCache = snapshot.getMetadata().isFromCache();
+                reads = fromCache ? 0 : Math.max(1, snapshot.size());
+            } else if (result instanceof DocumentSnapshot) {
+                fromCache = ((DocumentSnapshot) result).getMetadata().isFromCache();
+                reads = fromCache ? 0 : 1;
+            }
+            int writes = done.isSuccessful() ? documentsWritten : 0;
+            record(operation, latencyMs, reads, writes, fromCache, done.isSuccessful());
+            stopTrace(trace, reads, writes, fromCache, done.isSuccessful());
+        });
+        return task;
+    }
+
+    /**
+     * Counts one listener snapshot. Only documents that changed are billed, and a snapshot
+     * served from the local cache is not billed at all. Listeners have no latency to record.
+     */
+    public void recordSnapshot(String operation, QuerySnapshot snapshot, Exception error) {
+        if (error != null || snapshot == null) {
+            record(operation, -1, 0, 0, null, false);
+            return;
+        }
+        boolean fromCache = snapshot.getMetadata().isFromCache();
+        int reads = fromCache ? 0 : snapshot.getDocumentChanges().size();
+        record(operation, -1, reads, 0, fromCache, true);
+    }
+
+    // Reads made inside a transaction, which the transaction's result does not reveal
+    public void recordReads(String operation, int documentsRead) {
+        synchronized (stats) {
+            statsFor(operation).documentsRead += documentsRead;
+        }
+    }
+
+    // Copies of the current counters, in the order the operations were first used
+    public List<OperationStats> getStats() {
+        synchronized (stats) {
+            List<OperationStats> copies = new ArrayList<>();
+            for (OperationStats operationStats : stats.values()) {
+                copies.add(operationStats.copy());
+            }
+            return copies;
+        }
+    }
+
+    public void reset() {
+        synchronized (stats) {
+            stats.clear();
+        }
+        exportTotals();
+    }
+
+    public static long[] getBucketUpperBoundsMs() {
+        return BUCKET_UPPER_BOUNDS_MS.clone();
+    }
+
+    private void record(String operation, long latencyMs, int reads, int writes, Boolean fromCache, boolean success) {
+        synchronized (stats) {
+            OperationStats operationStats = statsFor(operation);
+            operationStats.calls++;
+            if (!success) {
+                operationStats.failures++;
+            }
+            if (latencyMs >= 0) {
+                operationStats.totalLatencyMs += latencyMs;
+                operationStats.maxLatencyMs = Math.max(operationStats.maxLatencyMs, latencyMs);
+                operationStats.buckets[bucketFor(latencyMs)]++;
+            }
+            operationStats.documentsRead += reads;
+            operationStats.documentsWritten += writes;
+            if (fromCache != null) {
+                if (fromCache) {
+                    operationStats.cacheHits++;
+                } else {
+                    operationStats.serverHits++;
+                }
+            }
+        }
+        exportTotals();
+    }
+
+    private OperationStats statsFor(String operation) {
+        OperationStats operationStats = stats.get(operation);
+        if (operationStats == null) {
+            operationStats = new OperationStats(operation);
+            stats.put(operation, operationStats);
+        }
+        return operationStats;
+    }
+
+    private static int bucketFor(long latencyMs) {
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MS.length; i++) {
+            if (latencyMs < BUCKET_UPPER_BOUNDS_MS[i]) return i;
+        }
+        return BUCKET_UPPER_BOUNDS_MS.length;
+    }
+
+    // Crashlytics allows few custom keys, so only session totals and the heaviest reader are kept
+    private void exportTotals() {
+        long reads = 0;
+        long writes = 0;
+        long failures = 0;
+        String topReader = "";
+        long topReads = -1;
+        synchronized (stats) {
+            for (OperationStats operationStats : stats.values()) {
+                reads += operationStats.documentsRead;
+                writes += operationStats.documentsWritten;
+                failures += operationStats.failures;
+                if (operationStats.documentsRead > topReads) {
+                    topReads = operationStats.documentsRead;
+                    topReader = operationStats.operation;
+                }
+            }
+        }
+        try {
+            FirebaseCrashlytics crashlytics = FirebaseCrashlytics.getInstance();
+            crashlytics.setCustomKey("firestore_reads", reads);
+            crashlytics.setCustomKey("firestore_writes", writes);
+            crashlytics.setCustomKey("firestore_failures", failures);
+            crashlytics.setCustomKey("firestore_top_reader", topReader);
+        } catch (IllegalStateException e) {
+            // Firebase is not initialised, e.g. in a process without the app's provider
+            Log.w(TAG, "Crashlytics unavailable", e);
+        }
+    }
+
+    private static Trace startTrace(String operation) {
+        try {
+            Trace trace = FirebasePerformance.getInstance().newTrace(TRACE_PREFIX + operation);
+            trace.start();
+            return trace;
+        } catch (IllegalStateException e) {
+            Log.w(TAG, "Performance monitoring unavailable", e);
+            return null;
+        }
+    }
+
+    private static void stopTrace(Trace trace, int reads, int writes, Boolean fromCache, boolean success) {
+        if (trace == null) return;
+        trace.putMetric("documents_read", reads);
+        trace.putMetric("documents_written", writes);
+        trace.putAttribute("source", fromCache == null ? "none" : (fromCache ? "cache" : "server"));
+        trace.putAttribute("outcome", success ? "success" : "failure");
+        trace.stop();
+    }
+
+    public static class OperationStats {
+        private final String operation;
+        private long calls;
+        private long failures;
+        private long documentsRead;
+        private long documentsWritten;
+        private long cacheHits;
+        private long serverHits;
+        private long totalLatencyMs;
+        private long maxLatencyMs;
+        private long[] buckets = new long[BUCKET_UPPER_BOUNDS_MS.length + 1];
+
+        OperationStats(String operation) {
+            this.operation = operation;
+        }
+
+        OperationStats copy() {
+            OperationStats copy = new OperationStats(operation);
+            copy.calls = calls;
+            copy.failures = failures;
+            copy.documentsRead = documentsRead;
+            copy.documentsWritten = documentsWritten;
+            copy.cacheHits = cacheHits;
+            copy.serverHits = serverHits;
+            copy.totalLatencyMs = totalLatencyMs;
+            copy.maxLatencyMs = maxLatencyMs;
+            copy.buckets = buckets.clone();
+            return copy;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        // Billed reads: server results only
+        public long getDocumentsRead() {
+            return documentsRead;
+        }
+
+        public long getDocumentsWritten() {
+            return documentsWritten;
+        }
+
+        public long getCacheHits() {
+            return cacheHits;
+        }
+
+        public long getServerHits() {
+            return serverHits;
+        }
+
+        public long getMaxLatencyMs() {
+            return maxLatencyMs;
+        }
+
+        // Calls per latency bucket; see getBucketUpperBoundsMs for the bounds
+        public long[] getLatencyBuckets() {
+            return buckets.clone();
+        }
+
+        public long getMeanLatencyMs() {
+            long timed = 0;
+            for (long bucket : buckets) {
+                timed += bucket;
+            }
+            return timed == 0 ? 0 : totalLatencyMs / timed;
+        }
+
+        // Upper bound of the bucket holding the given percentile; -1 when nothing was timed,
+        // Long.MAX_VALUE when the percentile falls in the open-ended bucket
+        public long getLatencyPercentileMs(double percentile) {
+            long timed = 0;
+            for (long bucket : buckets) {
+                timed += bucket;
+            }
+            if (timed == 0) return -1;
+            long rank = (long) Math.ceil(timed * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_UPPER_BOUNDS_MS.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) return BUCKET_UPPER_BOUNDS_MS[i];
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -1,22 +1,47 @@
 package com.chotujobs.services;
 
 import android.util.Log;
+import com.chotujobs.BuildConfig;
 import com.chotujobs.models.Bid;
 import com.chotujobs.models.Chat;
+import com.chotujobs.models.ChatParticipant;
 import com.chotujobs.models.Job;
+import com.chotujobs.models.JobFilter;
 import com.chotujobs.models.Message;
 import com.chotujobs.models.User;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.PersistentCacheSettings;
 import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
 import com.google.firebase.firestore.WriteBatch;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class FirestoreService {
 
@@ -24,6 +49,9 @@ public class FirestoreService {
     private static FirestoreService instance;
     private FirebaseFirestore db;
     private FirebaseAuth auth;
+    private long lastMessageIdStamp;
+    private final UserProfileCache userCache = new UserProfileCache(USER_CACHE_MAX_ENTRIES, USER_CACHE_TTL_MS);
+    private final FirestoreMetrics metrics = FirestoreMetrics.getInstance();
 
     // Collection names
     private static final String COLLECTION_JOBS = "jobs";
@@ -31,10 +59,48 @@ public class FirestoreService {
     private static final String SUBCOLLECTION_BIDS = "bids";
     private static final String COLLECTION_CHATS = "chats";
     private static final String SUBCOLLECTION_MESSAGES = "messages";
+    private static final String FIELD_UNREAD_COUNTS = "unreadCounts";
+
+    public static final int DEFAULT_JOB_PAGE_SIZE = 20;
+    public static final int DEFAULT_MESSAGE_PAGE_SIZE = 30;
+    public static final long DEFAULT_CACHE_SIZE_BYTES = 50L * 1024 * 1024;
+    // Maximum number of values Firestore accepts in a single whereIn filter
+    private static final int WHERE_IN_LIMIT = 10;
+    // Maximum number of writes Firestore accepts in a single WriteBatch
+    private static final int MAX_BATCH_WRITES = 500;
+
+    // Default ports of the Firebase Local Emulator Suite, as configured in firebase.json
+    private static final int FIRESTORE_EMULATOR_PORT = 8080;
+    private static final int AUTH_EMULATOR_PORT = 9099;
+
+    private static final int USER_CACHE_MAX_ENTRIES = 256;
+    private static final long USER_CACHE_TTL_MS = 5 * 60 * 1000L;
+
+    private static long cacheSizeBytes = DEFAULT_CACHE_SIZE_BYTES;
 
     private FirestoreService() {
         db = FirebaseFirestore.getInstance();
         auth = FirebaseAuth.getInstance();
+        // Benchmark builds run against local emulators seeded with fixture data; this has to happen
+        // before the first read, and every screen reaches Firestore and Auth through this service first
+        if (BuildConfig.USE_FIREBASE_EMULATORS) {
+            db.useEmulator(BuildConfig.FIREBASE_EMULATOR_HOST, FIRESTORE_EMULATOR_PORT);
+            auth.useEmulator(BuildConfig.FIREBASE_EMULATOR_HOST, AUTH_EMULATOR_PORT);
+        }
+        db.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(PersistentCacheSettings.newBuilder()
+                        .setSizeBytes(cacheSizeBytes)
+                        .build())
+                .build());
+    }
+
+    // Must be called before the first getInstance(); Firestore settings cannot change once it is in use
+    public static synchronized void setCacheSizeBytes(long sizeBytes) {
+        if (instance != null) {
+            Log.w(TAG, "Firestore cache size must be configured before first use; ignoring");
+            return;
+        }
+        cacheSizeBytes = sizeBytes;
     }
 
     public static synchronized FirestoreService getInstance() {
@@ -55,8 +121,11 @@ public class FirestoreService {
     // ========== USER METHODS ==========
 
     public void createUserProfile(User user, String uid, OnCompleteListener<Boolean> listener) {
-        db.collection(COLLECTION_USERS).document(uid).set(user)
-                .addOnSuccessListener(aVoid -> listener.onComplete(true))
+        metrics.track("createUserProfile", db.collection(COLLECTION_USERS).document(uid).set(user.toMap()), 1)
+                .addOnSuccessListener(aVoid -> {
+                    invalidateUserProfile(uid);
+                    listener.onComplete(true);
+                })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error creating user profile: " + e.getMessage());
                     listener.onComplete(false);
@@ -64,34 +133,65 @@ public class FirestoreService {
     }
 
     public void getUserProfile(String uid, OnCompleteListener<User> listener) {
-        db.collection(COLLECTION_USERS).document(uid).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        User user = documentSnapshot.toObject(User.class);
-                        if (user != null) {
-                            user.setUserId(uid);
-                        }
-                        listener.onComplete(user);
-                    } else {
-                        listener.onComplete(null);
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error getting user profile", e);
-                    listener.onComplete(null);
+        loadUserProfile(uid).addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                listener.onComplete(task.getResult());
+            } else {
+                Log.e(TAG, "Error getting user profile", task.getException());
+                listener.onComplete(null);
+            }
+        });
+    }
+
+    // Fails with NOT_FOUND when the user has no profile document
+    public Task<User> getUserProfileAsync(String uid) {
+        if (uid == null || uid.isEmpty()) {
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.INVALID_ARGUMENT, "uid is required");
+        }
+        return typed(loadUserProfile(uid)).continueWithTask(task -> {
+            if (task.isSuccessful() && task.getResult() == null) {
+                return FirestoreTasks.failed(FirestoreServiceException.Reason.NOT_FOUND, "No profile for user " + uid);
+            }
+            return task;
+        });
+    }
+
+    private Task<User> loadUserProfile(String uid) {
+        User cached = userCache.get(uid);
+        if (cached != null) {
+            return Tasks.forResult(cached);
+        }
+        Task<User> pending = userCache.getInFlight(uid);
+        if (pending != null) {
+            return pending;
+        }
+
+        Task<User> task = metrics.track("getUserProfile", db.collection(COLLECTION_USERS).document(uid).get())
+                .continueWith(readTask -> {
+                    // Null when the user has no profile document
+                    return User.fromSnapshot(readTask.getResult());
                 });
+        userCache.putInFlight(uid, task);
+        task.addOnCompleteListener(done -> userCache.completeInFlight(uid, done, done.isSuccessful() ? done.getResult() : null));
+        return task;
+    }
+
+    public void invalidateUserProfile(String uid) {
+        if (uid != null) {
+            userCache.invalidate(uid);
+        }
     }
 
     public void getUsersByRole(String role, OnCompleteListener<List<User>> listener) {
-        db.collection(COLLECTION_USERS)
+        metrics.track("getUsersByRole", db.collection(COLLECTION_USERS)
                 .whereEqualTo("role", role)
-                .get()
+                .get())
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     List<User> users = new ArrayList<>();
                     for (var document : queryDocumentSnapshots.getDocuments()) {
-                        User user = document.toObject(User.class);
+                        User user = User.fromSnapshot(document);
                         if (user != null) {
-                            user.setUserId(document.getId());
+                            userCache.put(document.getId(), user);
                             users.add(user);
                         }
                     }
@@ -104,15 +204,15 @@ public class FirestoreService {
     }
     
     public void getLabourers(OnCompleteListener<List<User>> listener) {
-        db.collection(COLLECTION_USERS)
+        metrics.track("getLabourers", db.collection(COLLECTION_USERS)
                 .whereIn("role", Arrays.asList("labour", "labourer"))
-                .get()
+                .get())
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     List<User> users = new ArrayList<>();
                     for (var document : queryDocumentSnapshots.getDocuments()) {
-                        User user = document.toObject(User.class);
+                        User user = User.fromSnapshot(document);
                         if (user != null) {
-                            user.setUserId(document.getId());
+                            userCache.put(document.getId(), user);
                             users.add(user);
                         }
                     }
@@ -125,31 +225,81 @@ public class FirestoreService {
     }
 
     public void getUsersByIds(List<String> userIds, OnCompleteListener<List<User>> listener) {
-        if (userIds == null || userIds.isEmpty()) {
-            listener.onComplete(new ArrayList<>());
-            return;
+        getUserMap(userIds, userMap -> listener.onComplete(new ArrayList<>(userMap.values())));
+    }
+
+    public void getUserMap(Collection<String> userIds, OnCompleteListener<Map<String, User>> listener) {
+        getUserMapAsync(userIds).addOnCompleteListener(task ->
+                listener.onComplete(task.isSuccessful() ? task.getResult() : new HashMap<>()));
+    }
+
+    // Users that do not exist or could not be read are left out of the map; the Task itself never fails
+    public Task<Map<String, User>> getUserMapAsync(Collection<String> userIds) {
+        Set<String> uniqueIds = new LinkedHashSet<>();
+        if (userIds != null) {
+            for (String userId : userIds) {
+                if (userId != null && !userId.isEmpty()) {
+                    uniqueIds.add(userId);
+                }
+            }
+        }
+        if (uniqueIds.isEmpty()) {
+            return Tasks.forResult(new HashMap<>());
         }
 
-        if (userIds.size() > 10) {
-            userIds = userIds.subList(0, 10);
+        // Serve what we can from the cache and join reads that are already running
+        Map<String, Task<User>> userTasks = new LinkedHashMap<>();
+        Map<String, TaskCompletionSource<User>> misses = new LinkedHashMap<>();
+        for (String uid : uniqueIds) {
+            User cached = userCache.get(uid);
+            Task<User> pending = cached != null ? Tasks.forResult(cached) : userCache.getInFlight(uid);
+            if (pending == null) {
+                TaskCompletionSource<User> source = new TaskCompletionSource<>();
+                misses.put(uid, source);
+                pending = source.getTask();
+                userCache.putInFlight(uid, pending);
+            }
+            userTasks.put(uid, pending);
         }
 
-        db.collection(COLLECTION_USERS).whereIn(com.google.firebase.firestore.FieldPath.documentId(), userIds).get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    List<User> users = new ArrayList<>();
-                    for (var document : queryDocumentSnapshots.getDocuments()) {
-                        User user = document.toObject(User.class);
-                        if (user != null) {
-                            user.setUserId(document.getId());
-                            users.add(user);
+        // whereIn accepts a bounded number of values, so fan out one query per chunk
+        List<String> ids = new ArrayList<>(misses.keySet());
+        for (int i = 0; i < ids.size(); i += WHERE_IN_LIMIT) {
+            List<String> chunk = new ArrayList<>(ids.subList(i, Math.min(i + WHERE_IN_LIMIT, ids.size())));
+            metrics.track("getUserMap", db.collection(COLLECTION_USERS)
+                    .whereIn(FieldPath.documentId(), chunk)
+                    .get())
+                    .addOnCompleteListener(chunkTask -> {
+                        Map<String, User> found = new HashMap<>();
+                        if (chunkTask.isSuccessful() && chunkTask.getResult() != null) {
+                            for (var document : chunkTask.getResult().getDocuments()) {
+                                User user = User.fromSnapshot(document);
+                                if (user != null) {
+                                    found.put(document.getId(), user);
+                                }
+                            }
+                        } else {
+                            Log.e(TAG, "Error getting users by ids", chunkTask.getException());
                         }
-                    }
-                    listener.onComplete(users);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error getting users by ids", e);
-                    listener.onComplete(new ArrayList<>());
-                });
+                        for (String uid : chunk) {
+                            TaskCompletionSource<User> source = misses.get(uid);
+                            User user = found.get(uid);
+                            userCache.completeInFlight(uid, source.getTask(), user);
+                            source.setResult(user);
+                        }
+                    });
+        }
+
+        return Tasks.whenAllComplete(userTasks.values()).continueWith(allDone -> {
+            Map<String, User> userMap = new HashMap<>();
+            for (Map.Entry<String, Task<User>> entry : userTasks.entrySet()) {
+                Task<User> task = entry.getValue();
+                if (task.isSuccessful() && task.getResult() != null) {
+                    userMap.put(entry.getKey(), task.getResult());
+                }
+            }
+            return userMap;
+        });
     }
 
     public void updateUserProfile(String userId, Map<String, Object> updates, OnCompleteListener<Boolean> listener) {
@@ -158,7 +308,7 @@ public class FirestoreService {
             return;
         }
 
-        db.collection(COLLECTION_USERS).document(userId).update(updates)
+        metrics.track("updateUserProfile", db.collection(COLLECTION_USERS).document(userId).update(updates), 1)
                 .addOnSuccessListener(aVoid -> listener.onComplete(true))
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error updating user profile: " + e.getMessage());
@@ -172,7 +322,13 @@ public class FirestoreService {
         job.setStatus("active");
         // Persist as milliseconds since epoch to match existing data
         job.setTimestamp(System.currentTimeMillis());
-        db.collection(COLLECTION_JOBS).add(job)
+        // Derived fields the feed filters query on
+        job.setLocationKeys(JobFilter.locationKeys(job.getLocation()));
+        job.setBudgetBand(JobFilter.BudgetBand.forAmount(job.getBidLimit()).name());
+        if (job.getLatitude() != null && job.getLongitude() != null) {
+            job.setGeohash(GeoHashUtils.encode(job.getLatitude(), job.getLongitude(), GeoHashUtils.STORED_PRECISION));
+        }
+        metrics.track("createJob", db.collection(COLLECTION_JOBS).add(job.toMap()), 1)
                 .addOnSuccessListener(documentReference -> {
                     listener.onComplete(documentReference.getId());
                 })
@@ -183,66 +339,199 @@ public class FirestoreService {
     }
 
     public void getAllActiveJobs(OnCompleteListener<List<Job>> listener) {
-        db.collection(COLLECTION_JOBS)
-                .whereEqualTo("status", "active")
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .get()
+        getAllActiveJobs(ReadPolicy.DEFAULT, listener);
+    }
+
+    public void getAllActiveJobs(ReadPolicy policy, OnCompleteListener<List<Job>> listener) {
+        readWithPolicy("getAllActiveJobs", policy, activeJobsQuery()::get, snapshot -> !snapshot.isEmpty(), "Error getting active jobs", snapshot ->
+                listener.onComplete(snapshot != null ? mapJobs(snapshot) : new ArrayList<>()));
+    }
+
+    public void getActiveJobsPage(DocumentSnapshot startAfter, int pageSize, OnCompleteListener<JobPage> listener) {
+        if (pageSize <= 0) {
+            pageSize = DEFAULT_JOB_PAGE_SIZE;
+        }
+        final int limit = pageSize;
+
+        Query query = activeJobsQuery();
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+
+        metrics.track("getActiveJobsPage", query.limit(limit).get())
                 .addOnSuccessListener(queryDocumentSnapshots -> {
+                    List<DocumentSnapshot> documents = queryDocumentSnapshots.getDocuments();
                     List<Job> jobs = new ArrayList<>();
-                    for (var document : queryDocumentSnapshots.getDocuments()) {
-                        Job job = document.toObject(Job.class);
+                    for (var document : documents) {
+                        Job job = Job.fromSnapshot(document);
                         if (job != null) {
-                        job.setJobId(document.getId());
-                        jobs.add(job);
+                            jobs.add(job);
                         }
                     }
-                    listener.onComplete(jobs);
+                    // A full page means there may be more; the cursor is the last raw document, not the last mapped job
+                    DocumentSnapshot lastDocument = documents.isEmpty() ? startAfter : documents.get(documents.size() - 1);
+                    listener.onComplete(new JobPage(jobs, lastDocument, documents.size() == limit));
                 })
                 .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error getting active jobs", e);
-                    listener.onComplete(new ArrayList<>());
+                    Log.e(TAG, "Error getting active jobs page", e);
+                    listener.onComplete(null);
                 });
     }
 
+    private Query activeJobsQuery() {
+        return activeJobsQuery(JobFilter.NONE);
+    }
+
+    // Filters are applied before the ordering so every combination is served by one composite index
+    private Query activeJobsQuery(JobFilter filter) {
+        Query query = db.collection(COLLECTION_JOBS).whereEqualTo("status", "active");
+        return filter.apply(query).orderBy("timestamp", Query.Direction.DESCENDING);
+    }
+
+    public ListenerRegistration listenForActiveJobsPage(long postedAtOrBefore, DocumentSnapshot startAfter, int pageSize,
+                                                        OnCompleteListener<JobChanges> listener) {
+        return listenForActiveJobsPage(JobFilter.NONE, postedAtOrBefore, startAfter, pageSize, listener);
+    }
+
+    // Live page of active jobs. The first page starts at postedAtOrBefore so that jobs posted after it never
+    // push older jobs out of the limit; later pages start after the previous page's last document.
+    public ListenerRegistration listenForActiveJobsPage(JobFilter filter, long postedAtOrBefore, DocumentSnapshot startAfter,
+                                                        int pageSize, OnCompleteListener<JobChanges> listener) {
+        Query query = activeJobsQuery(filter != null ? filter : JobFilter.NONE);
+        query = startAfter != null ? query.startAfter(startAfter) : query.startAt(postedAtOrBefore);
+        return query.limit(pageSize > 0 ? pageSize : DEFAULT_JOB_PAGE_SIZE)
+                .addSnapshotListener((snapshots, e) -> dispatchJobChanges("listenForActiveJobsPage", snapshots, e, listener));
+    }
+
+    public ListenerRegistration listenForNewActiveJobs(long postedAfter, OnCompleteListener<JobChanges> listener) {
+        return listenForNewActiveJobs(JobFilter.NONE, postedAfter, listener);
+    }
+
+    // Live view of the jobs posted after the feed was anchored
+    public ListenerRegistration listenForNewActiveJobs(JobFilter filter, long postedAfter, OnCompleteListener<JobChanges> listener) {
+        return activeJobsQuery(filter != null ? filter : JobFilter.NONE)
+                .endBefore(postedAfter)
+                .addSnapshotListener((snapshots, e) -> dispatchJobChanges("listenForNewActiveJobs", snapshots, e, listener));
+    }
+
+    /**
+     * Active jobs within radiusKm of the given point, nearest first. One geohash prefix range
+     * query per covering cell runs in parallel; the cells overshoot the circle, so results are
+     * filtered by exact distance. Jobs without coordinates are never returned.
+     */
+    public void getJobsNear(double latitude, double longitude, double radiusKm, OnCompleteListener<List<Job>> listener) {
+        List<Task<QuerySnapshot>> queries = new ArrayList<>();
+        for (String[] bound : GeoHashUtils.queryBounds(latitude, longitude, radiusKm)) {
+            queries.add(metrics.track("getJobsNear", db.collection(COLLECTION_JOBS)
+                    .whereEqualTo("status", "active")
+                    .orderBy("geohash")
+                    .startAt(bound[0])
+                    .endAt(bound[1])
+                    .get()));
+        }
+
+        Tasks.whenAllComplete(queries).addOnCompleteListener(done -> {
+            Map<String, Job> jobsById = new HashMap<>();
+            Map<String, Double> distances = new HashMap<>();
+            for (Task<QuerySnapshot> query : queries) {
+                // Each range covers its own part of the circle, so without all of them the list has gaps
+                if (!query.isSuccessful()) {
+                    Log.e(TAG, "Error querying nearby jobs", query.getException());
+                    listener.onComplete(null);
+                    return;
+                }
+                for (Job job : mapJobs(query.getResult())) {
+                    if (job.getLatitude() == null || job.getLongitude() == null) continue;
+                    double distance = GeoHashUtils.distanceKm(latitude, longitude, job.getLatitude(), job.getLongitude());
+                    if (distance <= radiusKm) {
+                        jobsById.put(job.getJobId(), job);
+                        distances.put(job.getJobId(), distance);
+                    }
+                }
+            }
+            List<Job> jobs = new ArrayList<>(jobsById.values());
+            jobs.sort((a, b) -> Double.compare(distances.get(a.getJobId()), distances.get(b.getJobId())));
+            listener.onComplete(jobs);
+        });
+    }
+
+    private void dispatchJobChanges(String operation, QuerySnapshot snapshots, Exception e, OnCompleteListener<JobChanges> listener) {
+        metrics.recordSnapshot(operation, snapshots, e);
+        if (e != null || snapshots == null) {
+            Log.e(TAG, "Error listening for active jobs", e);
+            listener.onComplete(null);
+            return;
+        }
+
+        // Only the changed documents are mapped; unchanged ones are neither billed nor re-bound
+        List<Job> upserted = new ArrayList<>();
+        List<String> removedJobIds = new ArrayList<>();
+        for (DocumentChange change : snapshots.getDocumentChanges()) {
+            DocumentSnapshot document = change.getDocument();
+            if (change.getType() == DocumentChange.Type.REMOVED) {
+                removedJobIds.add(document.getId());
+                continue;
+            }
+            Job job = Job.fromSnapshot(document);
+            if (job != null) {
+                upserted.add(job);
+            }
+        }
+
+        List<DocumentSnapshot> documents = snapshots.getDocuments();
+        DocumentSnapshot lastDocument = documents.isEmpty() ? null : documents.get(documents.size() - 1);
+        listener.onComplete(new JobChanges(upserted, removedJobIds, lastDocument, documents.size(),
+                snapshots.getMetadata().isFromCache()));
+    }
+
     public void getJobsByContractor(String contractorId, OnCompleteListener<List<Job>> listener) {
-        db.collection(COLLECTION_JOBS)
+        getJobsByContractor(contractorId, ReadPolicy.DEFAULT, listener);
+    }
+
+    public void getJobsByContractor(String contractorId, ReadPolicy policy, OnCompleteListener<List<Job>> listener) {
+        Query query = db.collection(COLLECTION_JOBS)
                 .whereEqualTo("contractorId", contractorId)
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    List<Job> jobs = new ArrayList<>();
-                    for (var document : queryDocumentSnapshots.getDocuments()) {
-                        Job job = document.toObject(Job.class);
-                        if (job != null) {
-                        job.setJobId(document.getId());
-                        jobs.add(job);
-                        }
-                    }
-                    listener.onComplete(jobs);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error getting jobs by contractor", e);
-                    listener.onComplete(new ArrayList<>());
-                });
+                .orderBy("timestamp", Query.Direction.DESCENDING);
+        readWithPolicy("getJobsByContractor", policy, query::get, snapshot -> !snapshot.isEmpty(), "Error getting jobs by contractor", snapshot ->
+                listener.onComplete(snapshot != null ? mapJobs(snapshot) : new ArrayList<>()));
+    }
+
+    private List<Job> mapJobs(QuerySnapshot queryDocumentSnapshots) {
+        List<Job> jobs = new ArrayList<>();
+        for (var document : queryDocumentSnapshots.getDocuments()) {
+            Job job = Job.fromSnapshot(document);
+            if (job != null) {
+                jobs.add(job);
+            }
+        }
+        return jobs;
     }
 
     public void getJobById(String jobId, OnCompleteListener<Job> listener) {
-        db.collection(COLLECTION_JOBS).document(jobId).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        Job job = documentSnapshot.toObject(Job.class);
-                        if (job != null) {
-                            job.setJobId(jobId);
-                        }
-                        listener.onComplete(job);
-                    } else {
-                        listener.onComplete(null);
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error getting job", e);
-                    listener.onComplete(null);
-                });
+        getJobById(jobId, ReadPolicy.DEFAULT, listener);
+    }
+
+    public void getJobById(String jobId, ReadPolicy policy, OnCompleteListener<Job> listener) {
+        DocumentReference jobRef = db.collection(COLLECTION_JOBS).document(jobId);
+        readWithPolicy("getJobById", policy, jobRef::get, DocumentSnapshot::exists, "Error getting job", documentSnapshot ->
+                listener.onComplete(toJob(documentSnapshot)));
+    }
+
+    // Fails with NOT_FOUND when the job does not exist
+    public Task<Job> getJobByIdAsync(String jobId) {
+        if (jobId == null || jobId.isEmpty()) {
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.INVALID_ARGUMENT, "jobId is required");
+        }
+        return typed(metrics.track("getJobById", db.collection(COLLECTION_JOBS).document(jobId).get())).continueWithTask(task -> {
+            if (!task.isSuccessful()) return Tasks.forException(task.getException());
+            Job job = toJob(task.getResult());
+            return job != null ? Tasks.forResult(job)
+                    : FirestoreTasks.failed(FirestoreServiceException.Reason.NOT_FOUND, "No job " + jobId);
+        });
+    }
+
+    private static Job toJob(DocumentSnapshot documentSnapshot) {
+        return documentSnapshot != null ? Job.fromSnapshot(documentSnapshot) : null;
     }
 
     public void updateJobStatus(String jobId, String status, String winnerUserId, OnCompleteListener<Boolean> listener) {
@@ -252,7 +541,7 @@ public class FirestoreService {
             updates.put("winnerUserId", winnerUserId);
         }
 
-        db.collection(COLLECTION_JOBS).document(jobId).update(updates)
+        metrics.track("updateJobStatus", db.collection(COLLECTION_JOBS).document(jobId).update(updates), 1)
                 .addOnSuccessListener(aVoid -> {
                     listener.onComplete(true);
                 })
@@ -271,7 +560,7 @@ public class FirestoreService {
         }
         
         bid.setStatus("pending");
-        checkJobThenCreateBid(bid, listener);
+        validateThenCreateBid(bid, listener);
     }
     
     private boolean isValidBid(Bid bid) {
@@ -287,19 +576,40 @@ public class FirestoreService {
     }
     
     
-    private void checkJobThenCreateBid(Bid bid, OnCompleteListener<String> listener) {
-        db.collection(COLLECTION_JOBS).document(bid.getJobId()).get()
-                .addOnSuccessListener(jobSnapshot -> {
-                    if (!isJobActive(jobSnapshot)) {
-                        listener.onComplete(null);
-                        return;
-                    }
-                    checkUserRoleThenCreateBid(bid, listener);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error checking job", e);
-                    listener.onComplete(null);
-                });
+    private void validateThenCreateBid(Bid bid, OnCompleteListener<String> listener) {
+        // The bidder and duplicate checks are independent, so issue both reads at once.
+        // The job itself is read inside the transaction that writes the bid and its aggregates.
+        Task<DocumentSnapshot> userTask = metrics.track("createBid.bidder",
+                db.collection(COLLECTION_USERS).document(bid.getBidderId()).get());
+        Task<QuerySnapshot> duplicateTask = metrics.track("createBid.duplicates", db.collection(COLLECTION_JOBS).document(bid.getJobId())
+                .collection(SUBCOLLECTION_BIDS)
+                .whereEqualTo("bidderId", bid.getBidderId())
+                .whereEqualTo("status", "pending")
+                .get());
+
+        Tasks.whenAllComplete(userTask, duplicateTask).addOnCompleteListener(readsDone -> {
+            if (!userTask.isSuccessful()) {
+                Log.e(TAG, "Error checking user role", userTask.getException());
+                listener.onComplete(null);
+                return;
+            }
+            if (!duplicateTask.isSuccessful()) {
+                Log.e(TAG, "Error checking for duplicate bid", duplicateTask.getException());
+                listener.onComplete(null);
+                return;
+            }
+
+            if (!hasValidBidderRole(userTask.getResult())) {
+                listener.onComplete(null);
+                return;
+            }
+            if (!duplicateTask.getResult().isEmpty()) {
+                Log.e(TAG, "User already has a pending bid on this job");
+                listener.onComplete(null);
+                return;
+            }
+            saveBidToFirestore(bid, listener);
+        });
     }
     
     private boolean isJobActive(com.google.firebase.firestore.DocumentSnapshot jobSnapshot) {
@@ -315,41 +625,6 @@ public class FirestoreService {
         return true;
     }
     
-    private void checkUserRoleThenCreateBid(Bid bid, OnCompleteListener<String> listener) {
-        db.collection(COLLECTION_USERS).document(bid.getBidderId()).get()
-                .addOnSuccessListener(userSnapshot -> {
-                    if (!hasValidBidderRole(userSnapshot)) {
-                        listener.onComplete(null);
-                        return;
-                    }
-                    checkDuplicateBid(bid, listener);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error checking user role", e);
-                    listener.onComplete(null);
-                });
-    }
-    
-    private void checkDuplicateBid(Bid bid, OnCompleteListener<String> listener) {
-        db.collection(COLLECTION_JOBS).document(bid.getJobId())
-                .collection(SUBCOLLECTION_BIDS)
-                .whereEqualTo("bidderId", bid.getBidderId())
-                .whereEqualTo("status", "pending")
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    if (!queryDocumentSnapshots.isEmpty()) {
-                        Log.e(TAG, "User already has a pending bid on this job");
-                        listener.onComplete(null);
-                        return;
-                    }
-                    saveBidToFirestore(bid, listener);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error checking for duplicate bid", e);
-                    listener.onComplete(null);
-                });
-    }
-    
     public static boolean canPlaceBid(String role) {
         if (role == null || role.isEmpty()) return false;
         String roleLower = role.toLowerCase().trim();
@@ -365,12 +640,32 @@ public class FirestoreService {
         return canPlaceBid(role);
     }
     
+    // Writes the bid and bumps the job's bid aggregates atomically; the job must still be active
     private void saveBidToFirestore(Bid bid, OnCompleteListener<String> listener) {
-        db.collection(COLLECTION_JOBS).document(bid.getJobId())
-                .collection(SUBCOLLECTION_BIDS).add(bid)
-                .addOnSuccessListener(documentReference -> {
-                    listener.onComplete(documentReference.getId());
-                })
+        DocumentReference jobRef = db.collection(COLLECTION_JOBS).document(bid.getJobId());
+        DocumentReference bidRef = jobRef.collection(SUBCOLLECTION_BIDS).document();
+
+        // Reads are billed on every attempt, so they are counted inside the transaction function
+        metrics.track("createBid.commit", db.runTransaction(transaction -> {
+            DocumentSnapshot jobDoc = transaction.get(jobRef);
+            metrics.recordReads("createBid.commit", 1);
+            if (!isJobActive(jobDoc)) {
+                throw new FirebaseFirestoreException("Job is not open for bids", FirebaseFirestoreException.Code.FAILED_PRECONDITION);
+            }
+
+            Double currentMin = jobDoc.getDouble("minBidAmount");
+            Map<String, Object> aggregates = new HashMap<>();
+            aggregates.put("bidCount", FieldValue.increment(1));
+            aggregates.put("pendingBidCount", FieldValue.increment(1));
+            aggregates.put("minBidAmount", currentMin == null ? bid.getBidAmount() : Math.min(currentMin, bid.getBidAmount()));
+            aggregates.put("lastBidAt", FieldValue.serverTimestamp());
+            // Lets the rules check the aggregates against the bid written alongside them
+            aggregates.put("lastBidId", bidRef.getId());
+
+            transaction.set(bidRef, bid.toMap());
+            transaction.update(jobRef, aggregates);
+            return bidRef.getId();
+        }), 2).addOnSuccessListener(listener::onComplete)
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error saving bid", e);
                     listener.onComplete(null);
@@ -378,108 +673,301 @@ public class FirestoreService {
     }
 
     public void getBidsByJob(String jobId, OnCompleteListener<List<Bid>> listener) {
+        getBidsByJob(jobId, ReadPolicy.DEFAULT, listener);
+    }
+
+    public void getBidsByJob(String jobId, ReadPolicy policy, OnCompleteListener<List<Bid>> listener) {
         if (jobId == null || jobId.isEmpty()) {
             Log.e(TAG, "Cannot get bids: jobId is null or empty");
             listener.onComplete(new ArrayList<>());
             return;
         }
         
-        db.collection(COLLECTION_JOBS).document(jobId)
+        Query query = db.collection(COLLECTION_JOBS).document(jobId)
+                .collection(SUBCOLLECTION_BIDS)
+                .orderBy("timestamp", Query.Direction.DESCENDING);
+        readWithPolicy("getBidsByJob", policy, query::get, snapshot -> !snapshot.isEmpty(), "Error getting bids", queryDocumentSnapshots ->
+                listener.onComplete(mapBids(jobId, queryDocumentSnapshots)));
+    }
+
+    public Task<List<Bid>> getBidsByJobAsync(String jobId) {
+        if (jobId == null || jobId.isEmpty()) {
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.INVALID_ARGUMENT, "jobId is required");
+        }
+        return typed(metrics.track("getBidsByJob", db.collection(COLLECTION_JOBS).document(jobId)
                 .collection(SUBCOLLECTION_BIDS)
                 .orderBy("timestamp", Query.Direction.DESCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    List<Bid> bids = new ArrayList<>();
-                    for (var document : queryDocumentSnapshots.getDocuments()) {
-                        Bid bid = document.toObject(Bid.class);
-                        if (bid != null) {
-                        bid.setBidId(document.getId());
-                        bid.setJobId(jobId);
-                        bids.add(bid);
-                        } else {
-                            Log.w(TAG, "Skipping null bid document: " + document.getId());
-                        }
-                    }
-                    listener.onComplete(bids);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error getting bids", e);
-                    listener.onComplete(new ArrayList<>());
-                });
+                .get()))
+                .continueWith(task -> mapBids(jobId, task.getResult()));
+    }
+
+    private static List<Bid> mapBids(String jobId, QuerySnapshot queryDocumentSnapshots) {
+        List<Bid> bids = new ArrayList<>();
+        if (queryDocumentSnapshots == null) {
+            return bids;
+        }
+        for (var document : queryDocumentSnapshots.getDocuments()) {
+            Bid bid = Bid.fromSnapshot(document);
+            if (bid != null) {
+                bid.setJobId(jobId);
+                bids.add(bid);
+            } else {
+                Log.w(TAG, "Skipping null bid document: " + document.getId());
+            }
+        }
+        return bids;
     }
 
     public void updateBidStatus(String jobId, String bidId, String status, OnCompleteListener<Boolean> listener) {
+        updateBidStatusAsync(jobId, bidId, status).addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Error updating bid status. jobId=" + jobId + ", bidId=" + bidId + ", status=" + status, task.getException());
+            }
+            listener.onComplete(task.isSuccessful());
+        });
+    }
+
+    public void updateBidStatus(Job job, Bid bid, String status, OnCompleteListener<Boolean> listener) {
+        updateBidStatusAsync(job, bid, status).addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Error updating bid status. bidId=" + (bid != null ? bid.getBidId() : null) + ", status=" + status, task.getException());
+            }
+            listener.onComplete(task.isSuccessful());
+        });
+    }
+
+    /**
+     * Single round-trip variant for screens that already hold the job and the bid. Ownership is
+     * checked against the loaded job (the rules enforce it again on the server) and the update
+     * itself fails with NOT_FOUND if the bid was deleted, so nothing is read first. The rules
+     * also reject a pending count change that doesn't match the stored bid and job, which is how
+     * a stale copy shows up; the update is then redone by the transaction variant.
+     */
+    public Task<Void> updateBidStatusAsync(Job job, Bid bid, String status) {
+        if (job == null || job.getJobId() == null || bid == null || bid.getBidId() == null || status == null) {
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.INVALID_ARGUMENT, "Job, bid and status are required");
+        }
+        if (!status.equals("pending") && !status.equals("accepted") && !status.equals("rejected")) {
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.INVALID_ARGUMENT, "Invalid bid status: " + status);
+        }
+        String currentUserId = getCurrentUserId();
+        if (currentUserId == null || job.getContractorId() == null || !job.getContractorId().trim().equals(currentUserId.trim())) {
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.PERMISSION_DENIED, "Only job owner can update bid status");
+        }
+
+        DocumentReference jobRef = db.collection(COLLECTION_JOBS).document(job.getJobId());
+        WriteBatch batch = db.batch();
+        batch.update(jobRef.collection(SUBCOLLECTION_BIDS).document(bid.getBidId()), "status", status);
+        // A closed job's pending count is final
+        boolean movesCount = "active".equals(job.getStatus()) && isPendingBid(bid) != "pending".equals(status);
+        if (movesCount) {
+            batch.update(jobRef, "pendingBidCount", FieldValue.increment("pending".equals(status) ? 1 : -1));
+        }
+        return typed(metrics.track("updateBidStatus", batch.commit(), movesCount ? 2 : 1)).continueWithTask(task ->
+                isRejectedByRules(task)
+                        ? updateBidStatusAsync(job.getJobId(), bid.getBidId(), status)
+                        : task);
+    }
+
+    public Task<Void> updateBidStatusAsync(String jobId, String bidId, String status) {
         if (jobId == null || jobId.isEmpty() || bidId == null || bidId.isEmpty() || status == null || status.isEmpty()) {
-            Log.e(TAG, "Cannot update bid status: missing parameters. jobId=" + jobId + ", bidId=" + bidId + ", status=" + status);
-            listener.onComplete(false);
-            return;
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.INVALID_ARGUMENT,
+                    "Missing parameters. jobId=" + jobId + ", bidId=" + bidId + ", status=" + status);
         }
-        
         if (!status.equals("pending") && !status.equals("accepted") && !status.equals("rejected")) {
-            Log.e(TAG, "Invalid bid status: " + status);
-            listener.onComplete(false);
-            return;
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.INVALID_ARGUMENT, "Invalid bid status: " + status);
         }
-        
         String currentUserId = getCurrentUserId();
         if (currentUserId == null) {
-            Log.e(TAG, "Cannot update bid status: user not authenticated");
-            listener.onComplete(false);
-            return;
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.PERMISSION_DENIED, "User not authenticated");
         }
-        
-        db.collection(COLLECTION_JOBS).document(jobId).get()
-                .addOnSuccessListener(jobDoc -> {
-                    if (!jobDoc.exists()) {
-                        Log.e(TAG, "Job does not exist: " + jobId);
-                        listener.onComplete(false);
-                        return;
+
+        DocumentReference jobRef = db.collection(COLLECTION_JOBS).document(jobId);
+        DocumentReference bidRef = jobRef.collection(SUBCOLLECTION_BIDS).document(bidId);
+
+        // The status change and the job's pending count move together, so the count never drifts
+        return typed(metrics.track("updateBidStatus.transaction", db.runTransaction(transaction -> {
+            DocumentSnapshot jobDoc = transaction.get(jobRef);
+            DocumentSnapshot bidDoc = transaction.get(bidRef);
+            metrics.recordReads("updateBidStatus.transaction", 2);
+            if (!jobDoc.exists()) {
+                throw new FirebaseFirestoreException("Job does not exist: " + jobId, FirebaseFirestoreException.Code.NOT_FOUND);
+            }
+            String contractorId = jobDoc.getString("contractorId");
+            if (contractorId == null || !contractorId.trim().equals(currentUserId.trim())) {
+                throw new FirebaseFirestoreException("Only job owner can update bid status", FirebaseFirestoreException.Code.PERMISSION_DENIED);
+            }
+            if (!bidDoc.exists()) {
+                throw new FirebaseFirestoreException("Bid does not exist: " + bidId, FirebaseFirestoreException.Code.NOT_FOUND);
+            }
+
+            String currentStatus = bidDoc.getString("status");
+            boolean wasPending = currentStatus == null || "pending".equals(currentStatus);
+            boolean isPending = "pending".equals(status);
+            Long pendingCount = jobDoc.getLong("pendingBidCount");
+            transaction.update(bidRef, "status", status);
+            // A closed job's count is final, and the count never goes below zero on jobs that predate it
+            if ("active".equals(jobDoc.getString("status")) && wasPending != isPending
+                    && (isPending || (pendingCount != null && pendingCount > 0))) {
+                transaction.update(jobRef, "pendingBidCount", FieldValue.increment(isPending ? 1 : -1));
+            }
+            return null;
+        }), 1));
+    }
+
+    public void selectWinningBid(String jobId, String bidId, OnCompleteListener<Boolean> listener) {
+        selectWinningBidAsync(jobId, bidId).addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Error selecting winning bid. jobId=" + jobId + ", bidId=" + bidId, task.getException());
+            }
+            listener.onComplete(task.isSuccessful());
+        });
+    }
+
+    /**
+     * Fails with FAILED_PRECONDITION if the job is closed or the bid is no longer pending. The one
+     * exception is a job already closed for this same bid: an earlier call closed it but some of
+     * its rejections failed, so calling again rejects the bids still pending.
+     */
+    public Task<Void> selectWinningBidAsync(String jobId, String bidId) {
+        if (jobId == null || jobId.isEmpty() || bidId == null || bidId.isEmpty()) {
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.INVALID_ARGUMENT,
+                    "Missing parameters. jobId=" + jobId + ", bidId=" + bidId);
+        }
+        String currentUserId = getCurrentUserId();
+        if (currentUserId == null) {
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.PERMISSION_DENIED, "User not authenticated");
+        }
+
+        DocumentReference jobRef = db.collection(COLLECTION_JOBS).document(jobId);
+        Task<DocumentSnapshot> jobTask = metrics.track("selectWinningBid.job", jobRef.get());
+        Task<QuerySnapshot> pendingBidsTask = metrics.track("selectWinningBid.pendingBids", jobRef.collection(SUBCOLLECTION_BIDS)
+                .whereEqualTo("status", "pending")
+                .get());
+
+        // Both reads go out together; the writes then depend only on their results, not on the bid count
+        return Tasks.whenAllComplete(jobTask, pendingBidsTask).continueWithTask(readsDone -> {
+            if (!jobTask.isSuccessful() || !pendingBidsTask.isSuccessful()) {
+                Exception e = jobTask.isSuccessful() ? pendingBidsTask.getException() : jobTask.getException();
+                return Tasks.forException(FirestoreServiceException.from(e));
+            }
+
+            DocumentSnapshot jobDoc = jobTask.getResult();
+            String contractorId = jobDoc.getString("contractorId");
+            if (jobDoc.exists() && (contractorId == null || !contractorId.trim().equals(currentUserId.trim()))) {
+                return FirestoreTasks.failed(FirestoreServiceException.Reason.PERMISSION_DENIED, "Only job owner can select a winning bid");
+            }
+            if (jobDoc.exists() && "closed".equals(jobDoc.getString("status"))) {
+                return finishWinnerSelection(jobRef, jobDoc, bidId, pendingBidsTask.getResult());
+            }
+            if (!isJobActive(jobDoc)) {
+                return FirestoreTasks.failed(FirestoreServiceException.Reason.FAILED_PRECONDITION, "Job is not active: " + jobId);
+            }
+
+            DocumentSnapshot winningBid = null;
+            List<DocumentReference> losingBids = new ArrayList<>();
+            for (DocumentSnapshot bidDoc : pendingBidsTask.getResult().getDocuments()) {
+                if (bidId.equals(bidDoc.getId())) {
+                    winningBid = bidDoc;
+                } else {
+                    losingBids.add(bidDoc.getReference());
+                }
+            }
+            if (winningBid == null) {
+                return FirestoreTasks.failed(FirestoreServiceException.Reason.FAILED_PRECONDITION,
+                        "Winning bid does not exist or is no longer pending: " + bidId);
+            }
+
+            return commitWinnerSelection(jobRef, winningBid.getReference(), winnerOf(winningBid), losingBids);
+        });
+    }
+
+    // The job was closed for some winner; only a repeat of that same selection may go on
+    private Task<Void> finishWinnerSelection(DocumentReference jobRef, DocumentSnapshot jobDoc, String bidId, QuerySnapshot pendingBids) {
+        return metrics.track("selectWinningBid.winner", jobRef.collection(SUBCOLLECTION_BIDS).document(bidId).get())
+                .continueWithTask(bidTask -> {
+                    if (!bidTask.isSuccessful()) {
+                        return Tasks.forException(FirestoreServiceException.from(bidTask.getException()));
                     }
-                    
-                    String contractorId = jobDoc.getString("contractorId");
-                    if (contractorId == null) {
-                        Log.e(TAG, "Job has no contractorId field");
-                        listener.onComplete(false);
-                        return;
+                    DocumentSnapshot bidDoc = bidTask.getResult();
+                    String winnerUserId = bidDoc.exists() ? winnerOf(bidDoc) : null;
+                    if (!"accepted".equals(bidDoc.getString("status")) || winnerUserId == null
+                            || !winnerUserId.equals(jobDoc.getString("winnerUserId"))) {
+                        return FirestoreTasks.failed(FirestoreServiceException.Reason.FAILED_PRECONDITION,
+                                "Job is not active: " + jobRef.getId());
                     }
-                    
-                    if (!contractorId.trim().equals(currentUserId.trim())) {
-                        Log.e(TAG, "Only job owner can update bid status");
-                        listener.onComplete(false);
-                        return;
+                    List<DocumentReference> losingBids = new ArrayList<>();
+                    for (DocumentSnapshot pending : pendingBids.getDocuments()) {
+                        losingBids.add(pending.getReference());
                     }
-                    
-                    db.collection(COLLECTION_JOBS).document(jobId)
-                            .collection(SUBCOLLECTION_BIDS).document(bidId).get()
-                            .addOnSuccessListener(bidDoc -> {
-                                if (!bidDoc.exists()) {
-                                    Log.e(TAG, "Bid does not exist: " + bidId);
-                                    listener.onComplete(false);
-                                    return;
-                                }
-                                
-                                db.collection(COLLECTION_JOBS).document(jobId)
-                                        .collection(SUBCOLLECTION_BIDS).document(bidId)
-                                        .update("status", status)
-                                        .addOnSuccessListener(aVoid -> {
-                                            listener.onComplete(true);
-                                        })
-                                        .addOnFailureListener(e -> {
-                                            Log.e(TAG, "Error updating bid status. jobId=" + jobId + ", bidId=" + bidId + ", status=" + status + ", error=" + e.getMessage(), e);
-                                            listener.onComplete(false);
-                                        });
-                            })
-                            .addOnFailureListener(e -> {
-                                Log.e(TAG, "Error checking bid existence: " + bidId + ", error=" + e.getMessage(), e);
-                                listener.onComplete(false);
-                            });
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error checking job: " + jobId + ", error=" + e.getMessage(), e);
-                    listener.onComplete(false);
+                    return commitRejections(db.batch(), 0, losingBids);
                 });
     }
 
+    // An agent's bid is won by the labourer it was placed for
+    private static String winnerOf(DocumentSnapshot bidDoc) {
+        String winnerUserId = bidDoc.getString("labourerIdIfAgent");
+        return winnerUserId == null || winnerUserId.isEmpty() ? bidDoc.getString("bidderId") : winnerUserId;
+    }
+
+    private static boolean isPendingBid(Bid bid) {
+        return bid.getStatus() == null || "pending".equals(bid.getStatus());
+    }
+
+    // Fast paths built from loaded copies fail this way when a copy no longer matches the server
+    private static boolean isRejectedByRules(Task<?> task) {
+        return !task.isSuccessful()
+                && FirestoreServiceException.from(task.getException()).getReason() == FirestoreServiceException.Reason.PERMISSION_DENIED;
+    }
+
+    private Task<Void> commitWinnerSelection(DocumentReference jobRef, DocumentReference winningBidRef, String winnerUserId,
+                                             List<DocumentReference> losingBids) {
+        // Accepting the winner and closing the job always share one batch, so the job is closed for
+        // exactly one winner; rejections fill the rest of that batch
+        WriteBatch batch = db.batch();
+        batch.update(winningBidRef, "status", "accepted");
+        Map<String, Object> jobUpdates = new HashMap<>();
+        jobUpdates.put("status", "closed");
+        // A closed job takes no more bids and every pending bid is resolved here; an absolute value
+        // also stays right when the bid list came from a stale local copy
+        jobUpdates.put("pendingBidCount", 0);
+        if (winnerUserId != null) {
+            jobUpdates.put("winnerUserId", winnerUserId);
+        }
+        batch.update(jobRef, jobUpdates);
+        return commitRejections(batch, 2, losingBids);
+    }
+
+    /**
+     * Rejects the losing bids, filling the given batch first. Batches past the write limit commit
+     * on their own, so if one fails the job may already be closed with bids still pending; selecting
+     * the same winner again then rejects whatever is left.
+     */
+    private Task<Void> commitRejections(WriteBatch batch, int writesInBatch, List<DocumentReference> losingBids) {
+        List<WriteBatch> batches = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        for (DocumentReference losingBid : losingBids) {
+            if (writesInBatch == MAX_BATCH_WRITES) {
+                batches.add(batch);
+                batchSizes.add(writesInBatch);
+                batch = db.batch();
+                writesInBatch = 0;
+            }
+            batch.update(losingBid, "status", "rejected");
+            writesInBatch++;
+        }
+        if (writesInBatch > 0) {
+            batches.add(batch);
+            batchSizes.add(writesInBatch);
+        }
+
+        List<Task<Void>> commits = new ArrayList<>();
+        for (int i = 0; i < batches.size(); i++) {
+            commits.add(metrics.track("selectWinningBid.commit", batches.get(i).commit(), batchSizes.get(i)));
+        }
+        return FirestoreTasks.allOf(commits).onSuccessTask(committed -> Tasks.forResult(null));
+    }
+
     // ========== CHAT METHODS ==========
 
     public void createChat(String userId1, String userId2, OnCompleteListener<String> listener) {
@@ -490,74 +978,256 @@ public class FirestoreService {
         }
         
         // Ensure consistent chatId by sorting user IDs
-        String chatId = (userId1.compareTo(userId2) > 0) ? userId1 + userId2 : userId2 + userId1;
+        String first = userId1.compareTo(userId2) > 0 ? userId1 : userId2;
+        String second = first.equals(userId1) ? userId2 : userId1;
+        String chatId = first + second;
         DocumentReference chatRef = db.collection(COLLECTION_CHATS).document(chatId);
 
-        chatRef.get().addOnSuccessListener(documentSnapshot -> {
-            if (!documentSnapshot.exists()) {
-                Map<String, Object> chatData = new HashMap<>();
-                chatData.put("userIds", Arrays.asList(userId1, userId2));
-                chatData.put("lastMessage", "");
-                chatData.put("lastMessageTimestamp", FieldValue.serverTimestamp());
-                chatRef.set(chatData)
-                        .addOnSuccessListener(aVoid -> {
-                            // Wait a moment for Firestore to commit the chat document
-                            // This ensures the security rules can read it before we send a message
-                            new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() -> {
-                                listener.onComplete(chatId);
-                            }, 300);
-                        })
-                        .addOnFailureListener(e -> {
-                            Log.e(TAG, "Error creating chat", e);
-                            listener.onComplete(null);
-                        });
-            } else {
-                listener.onComplete(chatId);
-            }
-        }).addOnFailureListener(e -> {
-            Log.e(TAG, "Error checking chat existence", e);
-            listener.onComplete(null);
-        });
+        // Only the caller's own summary goes in this write: the cached copy of the other user may be
+        // older than what refreshChatParticipant last wrote to an existing chat
+        Map<String, Object> chatData = new HashMap<>();
+        chatData.put("userIds", Arrays.asList(first, second));
+        String currentUserId = getCurrentUserId();
+        User self = first.equals(currentUserId) || second.equals(currentUserId) ? userCache.get(currentUserId) : null;
+        if (self != null) {
+            chatData.put("participants", toParticipantData(
+                    Collections.singletonMap(currentUserId, ChatParticipant.fromUser(self))));
+        }
+
+        // A merge on the deterministic id creates the chat or leaves an existing one (and its last
+        // message) untouched, so no read is needed first. The chat list orders by lastMessageTimestamp,
+        // so a new chat shows up there with its first message.
+        metrics.track("createChat", chatRef.set(chatData, SetOptions.merge()), 1)
+                .addOnSuccessListener(aVoid -> {
+                    listener.onComplete(chatId);
+                    fillChatParticipants(chatRef, first, second);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error creating chat", e);
+                    listener.onComplete(null);
+                });
     }
 
-    public void sendMessage(String chatId, Message message, OnCompleteListener<Boolean> listener) {
-        if (chatId == null || chatId.isEmpty()) {
-            Log.e(TAG, "Cannot send message: chatId is null or empty");
-            listener.onComplete(false);
-            return;
+    // Writes only the summaries the chat doesn't have yet; existing ones are kept current by refreshChatParticipant
+    private void fillChatParticipants(DocumentReference chatRef, String userId1, String userId2) {
+        metrics.track("fillChatParticipants.chat", chatRef.get())
+                .addOnSuccessListener(chatDoc -> {
+                    List<String> missing = new ArrayList<>();
+                    for (String uid : Arrays.asList(userId1, userId2)) {
+                        if (chatDoc.get(FieldPath.of("participants", uid)) == null) {
+                            missing.add(uid);
+                        }
+                    }
+                    if (missing.isEmpty()) return;
+                    getUserMap(missing, users -> {
+                        if (users.isEmpty()) return;
+                        Map<String, Object> update = new HashMap<>();
+                        update.put("participants", toParticipantData(toParticipants(users)));
+                        metrics.track("fillChatParticipants", chatRef.set(update, SetOptions.merge()), 1)
+                                .addOnFailureListener(e -> Log.e(TAG, "Error adding participants to chat " + chatRef.getId(), e));
+                    });
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Error reading participants of chat " + chatRef.getId(), e));
+    }
+
+    private Map<String, ChatParticipant> toParticipants(Map<String, User> users) {
+        Map<String, ChatParticipant> participants = new HashMap<>();
+        for (Map.Entry<String, User> entry : users.entrySet()) {
+            participants.put(entry.getKey(), ChatParticipant.fromUser(entry.getValue()));
         }
-        if (message == null || message.getMessage() == null || message.getSenderId() == null) {
-            Log.e(TAG, "Cannot send message: message is invalid");
+        return participants;
+    }
+
+    private static Map<String, Object> toParticipantData(Map<String, ChatParticipant> participants) {
+        Map<String, Object> data = new HashMap<>();
+        for (Map.Entry<String, ChatParticipant> entry : participants.entrySet()) {
+            data.put(entry.getKey(), entry.getValue().toMap());
+        }
+        return data;
+    }
+
+    /**
+     * Rewrites the participant summary for {@code userId} on every chat they belong to.
+     * Call after the user's profile changes so other users' chat lists pick up the new name and avatar.
+     */
+    public void refreshChatParticipant(String userId, OnCompleteListener<Boolean> listener) {
+        if (userId == null || userId.isEmpty()) {
             listener.onComplete(false);
             return;
         }
 
-        WriteBatch batch = db.batch();
+        invalidateUserProfile(userId);
+        getUserProfile(userId, user -> {
+            if (user == null) {
+                listener.onComplete(false);
+                return;
+            }
+            Map<String, Object> participantData = ChatParticipant.fromUser(user).toMap();
+            FieldPath participantField = FieldPath.of("participants", userId);
+            metrics.track("refreshChatParticipant.chats", db.collection(COLLECTION_CHATS).whereArrayContains("userIds", userId).get())
+                    .addOnSuccessListener(querySnapshot -> {
+                        List<Task<Void>> commits = new ArrayList<>();
+                        WriteBatch batch = db.batch();
+                        int writesInBatch = 0;
+                        for (DocumentSnapshot chatDoc : querySnapshot.getDocuments()) {
+                            if (writesInBatch == MAX_BATCH_WRITES) {
+                                commits.add(metrics.track("refreshChatParticipant.commit", batch.commit(), writesInBatch));
+                                batch = db.batch();
+                                writesInBatch = 0;
+                            }
+                            batch.update(chatDoc.getReference(), participantField, participantData);
+                            writesInBatch++;
+                        }
+                        if (writesInBatch > 0) {
+                            commits.add(metrics.track("refreshChatParticipant.commit", batch.commit(), writesInBatch));
+                        }
+                        Tasks.whenAllComplete(commits).addOnCompleteListener(commitsDone -> {
+                            for (Task<Void> commit : commits) {
+                                if (!commit.isSuccessful()) {
+                                    Log.e(TAG, "Error refreshing chat participant " + userId, commit.getException());
+                                    listener.onComplete(false);
+                                    return;
+                                }
+                            }
+                            listener.onComplete(true);
+                        });
+                    })
+                    .addOnFailureListener(e -> {
+                        Log.e(TAG, "Error loading chats for participant refresh", e);
+                        listener.onComplete(false);
+                    });
+        });
+    }
 
-        DocumentReference messageRef = db.collection(COLLECTION_CHATS).document(chatId)
-                .collection(SUBCOLLECTION_MESSAGES).document();
-        batch.set(messageRef, message);
+    public void sendMessage(String chatId, Message message, OnCompleteListener<Boolean> listener) {
+        if (message != null && message.getMessageId() == null) {
+            message.setMessageId(newMessageId());
+        }
+        sendMessagesAsync(chatId, Collections.singletonList(message)).addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Error sending message", task.getException());
+            }
+            listener.onComplete(task.isSuccessful());
+        });
+    }
 
+    /**
+     * Writes a burst of messages to one chat in a single transaction, with one lastMessage update
+     * for the whole burst. Every message must carry a client id from {@link #newMessageId()}: a
+     * retry after a commit that did land finds those documents already written and skips them, so
+     * neither the messages nor the receivers' unread counters are applied twice.
+     */
+    public Task<Void> sendMessagesAsync(String chatId, List<Message> messages) {
+        if (chatId == null || chatId.isEmpty() || messages == null || messages.isEmpty()) {
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.INVALID_ARGUMENT, "chatId and messages are required");
+        }
+        if (messages.size() >= MAX_BATCH_WRITES) {
+            return FirestoreTasks.failed(FirestoreServiceException.Reason.INVALID_ARGUMENT, "Too many messages for one batch");
+        }
+        for (Message message : messages) {
+            if (message == null || message.getMessageId() == null || message.getMessage() == null || message.getSenderId() == null) {
+                return FirestoreTasks.failed(FirestoreServiceException.Reason.INVALID_ARGUMENT, "Message is invalid");
+            }
+        }
         DocumentReference chatRef = db.collection(COLLECTION_CHATS).document(chatId);
-        Map<String, Object> chatUpdates = new HashMap<>();
-        chatUpdates.put("lastMessage", message.getMessage());
-        chatUpdates.put("lastMessageTimestamp", FieldValue.serverTimestamp());
-        batch.update(chatRef, chatUpdates);
 
-        batch.commit()
-                .addOnSuccessListener(aVoid -> {
-                    listener.onComplete(true);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error sending message: " + e.getMessage());
-                    listener.onComplete(false);
-                });
+        // Reads are billed on every attempt, so they are counted inside the transaction function
+        return typed(metrics.track("sendMessages", db.runTransaction(transaction -> {
+            List<Message> unsent = new ArrayList<>();
+            for (Message message : messages) {
+                if (!transaction.get(chatRef.collection(SUBCOLLECTION_MESSAGES).document(message.getMessageId())).exists()) {
+                    unsent.add(message);
+                }
+            }
+            metrics.recordReads("sendMessages", messages.size());
+            // Already delivered by an earlier attempt whose acknowledgement was lost
+            if (unsent.isEmpty()) {
+                return null;
+            }
+
+            for (Message message : unsent) {
+                transaction.set(chatRef.collection(SUBCOLLECTION_MESSAGES).document(message.getMessageId()), message.toMap());
+            }
+            Map<String, Object> chatUpdates = new HashMap<>();
+            chatUpdates.put("lastMessage", unsent.get(unsent.size() - 1).getMessage());
+            chatUpdates.put("lastMessageTimestamp", FieldValue.serverTimestamp());
+            // Each receiver's unread counter rides on the same chat update, counting only new messages
+            Map<String, Long> unread = new HashMap<>();
+            for (Message message : unsent) {
+                String receiverId = message.getReceiverId();
+                if (receiverId != null && !receiverId.isEmpty() && !receiverId.equals(message.getSenderId())) {
+                    Long count = unread.get(receiverId);
+                    unread.put(receiverId, count == null ? 1 : count + 1);
+                }
+            }
+            for (Map.Entry<String, Long> entry : unread.entrySet()) {
+                chatUpdates.put(FIELD_UNREAD_COUNTS + "." + entry.getKey(), FieldValue.increment(entry.getValue()));
+            }
+            transaction.update(chatRef, chatUpdates);
+            return null;
+        }), messages.size() + 1));
+    }
+
+    /**
+     * Clears the user's unread counter on a chat with a single field write, however many
+     * messages were waiting.
+     */
+    public void markChatRead(String chatId, String userId) {
+        if (chatId == null || chatId.isEmpty() || userId == null || userId.isEmpty()) return;
+        metrics.track("markChatRead", db.collection(COLLECTION_CHATS).document(chatId)
+                .update(FIELD_UNREAD_COUNTS + "." + userId, 0), 1)
+                .addOnFailureListener(e -> Log.e(TAG, "Error marking chat " + chatId + " read", e));
     }
 
+    /**
+     * Id for a new message document. Messages in one batch share a server timestamp and Firestore
+     * breaks timestamp ties by document id, so the id starts with a strictly increasing
+     * millisecond stamp to keep a burst in the order it was typed.
+     */
+    public synchronized String newMessageId() {
+        long stamp = Math.max(System.currentTimeMillis(), lastMessageIdStamp + 1);
+        lastMessageIdStamp = stamp;
+        return String.format(Locale.ROOT, "%013d", stamp) + "_" + db.collection(COLLECTION_CHATS).document().getId();
+    }
+
+    // Ties on timestamp (a batch shares one) break by id, so a page cursor needs both
     public Query getMessages(String chatId) {
         return db.collection(COLLECTION_CHATS).document(chatId)
                 .collection(SUBCOLLECTION_MESSAGES)
-                .orderBy("timestamp", Query.Direction.ASCENDING);
+                .orderBy("timestamp", Query.Direction.ASCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING);
+    }
+
+    // Live window over the newest messages of a chat, oldest first
+    public Query getRecentMessages(String chatId, int limit) {
+        return getMessages(chatId).limitToLast(limit > 0 ? limit : DEFAULT_MESSAGE_PAGE_SIZE);
+    }
+
+    // Page of messages before the given one, which is identified by its timestamp and id
+    public void getOlderMessages(String chatId, Date before, String beforeMessageId, int limit,
+                                 OnCompleteListener<List<Message>> listener) {
+        if (chatId == null || chatId.isEmpty() || before == null || beforeMessageId == null) {
+            listener.onComplete(new ArrayList<>());
+            return;
+        }
+        metrics.track("getOlderMessages", getMessages(chatId)
+                .endBefore(before, beforeMessageId)
+                .limitToLast(limit > 0 ? limit : DEFAULT_MESSAGE_PAGE_SIZE)
+                .get())
+                .addOnSuccessListener(queryDocumentSnapshots -> {
+                    List<Message> messages = new ArrayList<>();
+                    for (var document : queryDocumentSnapshots.getDocuments()) {
+                        Message message = Message.fromSnapshot(document);
+                        if (message != null && message.getSenderId() != null && message.getMessage() != null) {
+                            messages.add(message);
+                        }
+                    }
+                    listener.onComplete(messages);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error getting older messages", e);
+                    listener.onComplete(null);
+                });
     }
 
     public Query getChatsForUser(String userId) {
@@ -613,6 +1283,128 @@ public class FirestoreService {
         });
     }
 
+    // ========== ASYNC HELPERS ==========
+
+    // Turns any failure of a Firestore Task into a FirestoreServiceException with a reason
+    private static <T> Task<T> typed(Task<T> task) {
+        return task.continueWithTask(done -> done.isSuccessful()
+                ? done
+                : Tasks.forException(FirestoreServiceException.from(done.getException())));
+    }
+
+    // ========== READ POLICY ==========
+
+    public enum ReadPolicy {
+        // Let Firestore pick: server when online, local cache when offline. One callback.
+        DEFAULT,
+        // Deliver the cached result right away if there is one, then deliver the server result
+        // in a second callback once it arrives. Callers must expect to be called twice.
+        CACHE_THEN_SERVER
+    }
+
+    private <T> void readWithPolicy(String operation, ReadPolicy policy, Function<Source, Task<T>> read, Predicate<T> hasData,
+                                    String errorMessage, OnCompleteListener<T> listener) {
+        if (policy != ReadPolicy.CACHE_THEN_SERVER) {
+            metrics.track(operation, read.apply(Source.DEFAULT)).addOnCompleteListener(task -> {
+                if (task.isSuccessful()) {
+                    listener.onComplete(task.getResult());
+                } else {
+                    Log.e(TAG, errorMessage, task.getException());
+                    listener.onComplete(null);
+                }
+            });
+            return;
+        }
+
+        boolean[] cacheDelivered = {false};
+        boolean[] serverDone = {false};
+        // Tracked separately: a cache miss fails the read, and should not count as a failure of the operation
+        metrics.track(operation + ".cache", read.apply(Source.CACHE)).addOnSuccessListener(result -> {
+            // A cache miss is not worth a callback; an empty result would only flash an empty screen
+            if (!serverDone[0] && result != null && hasData.test(result)) {
+                cacheDelivered[0] = true;
+                listener.onComplete(result);
+            }
+        });
+        metrics.track(operation, read.apply(Source.SERVER)).addOnCompleteListener(task -> {
+            serverDone[0] = true;
+            if (task.isSuccessful()) {
+                listener.onComplete(task.getResult());
+            } else if (cacheDelivered[0]) {
+                Log.w(TAG, errorMessage + " (keeping cached result)", task.getException());
+            } else {
+                Log.e(TAG, errorMessage, task.getException());
+                listener.onComplete(null);
+            }
+        });
+    }
+
+    // ========== RESULT TYPES ==========
+
+    public static class JobPage {
+        private final List<Job> jobs;
+        private final DocumentSnapshot lastDocument;
+        private final boolean hasMore;
+
+        JobPage(List<Job> jobs, DocumentSnapshot lastDocument, boolean hasMore) {
+            this.jobs = jobs;
+            this.lastDocument = lastDocument;
+            this.hasMore = hasMore;
+        }
+
+        public List<Job> getJobs() {
+            return jobs;
+        }
+
+        // Pass back into getActiveJobsPage to fetch the next page
+        public DocumentSnapshot getLastDocument() {
+            return lastDocument;
+        }
+
+        public boolean hasMore() {
+            return hasMore;
+        }
+    }
+
+    public static class JobChanges {
+        private final List<Job> upserted;
+        private final List<String> removedJobIds;
+        private final DocumentSnapshot lastDocument;
+        private final int documentCount;
+        private final boolean fromCache;
+
+        JobChanges(List<Job> upserted, List<String> removedJobIds, DocumentSnapshot lastDocument,
+                   int documentCount, boolean fromCache) {
+            this.upserted = upserted;
+            this.removedJobIds = removedJobIds;
+            this.lastDocument = lastDocument;
+            this.documentCount = documentCount;
+            this.fromCache = fromCache;
+        }
+
+        // Jobs that were ADDED or MODIFIED in this snapshot
+        public List<Job> getUpserted() {
+            return upserted;
+        }
+
+        public List<String> getRemovedJobIds() {
+            return removedJobIds;
+        }
+
+        // Last document of the full result set, usable as the next page's cursor
+        public DocumentSnapshot getLastDocument() {
+            return lastDocument;
+        }
+
+        public int getDocumentCount() {
+            return documentCount;
+        }
+
+        public boolean isFromCache() {
+            return fromCache;
+        }
+    }
+
     // ========== CALLBACK INTERFACE ==========
 
     public interface OnCompleteListener<T> {
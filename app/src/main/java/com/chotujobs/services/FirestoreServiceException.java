@@ -0,0 +1,74 @@
+package com.chotujobs.services;
+
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+/**
+ * Failure of a Task returned by the FirestoreService async API. The listener API maps every
+ * failure to null/false; async callers get the reason instead and can react to it.
+ */
+public class FirestoreServiceException extends Exception {
+
+    public enum Reason {
+        // The document or entity does not exist
+        NOT_FOUND,
+        // Signed out, not the owner, or rejected by security rules
+        PERMISSION_DENIED,
+        // The caller passed missing or malformed arguments
+        INVALID_ARGUMENT,
+        // The data is not in a state that allows the operation, e.g. the job is closed
+        FAILED_PRECONDITION,
+        // Offline or the backend could not be reached
+        UNAVAILABLE,
+        // FirestoreTasks.withTimeout gave up waiting
+        TIMEOUT,
+        UNKNOWN
+    }
+
+    private final Reason reason;
+
+    public FirestoreServiceException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public FirestoreServiceException(Reason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    // Wraps any Task failure, keeping the reason when it already is one of ours
+    public static FirestoreServiceException from(Exception e) {
+        if (e instanceof FirestoreServiceException) {
+            return (FirestoreServiceException) e;
+        }
+        if (e instanceof FirebaseFirestoreException) {
+            return new FirestoreServiceException(reasonFor(((FirebaseFirestoreException) e).getCode()), e.getMessage(), e);
+        }
+        return new FirestoreServiceException(Reason.UNKNOWN, e != null ? e.getMessage() : null, e);
+    }
+
+    private static Reason reasonFor(FirebaseFirestoreException.Code code) {
+        switch (code) {
+            case NOT_FOUND:
+                return Reason.NOT_FOUND;
+            case PERMISSION_DENIED:
+            case UNAUTHENTICATED:
+                return Reason.PERMISSION_DENIED;
+            case INVALID_ARGUMENT:
+                return Reason.INVALID_ARGUMENT;
+            case FAILED_PRECONDITION:
+            case ABORTED:
+                return Reason.FAILED_PRECONDITION;
+            case UNAVAILABLE:
+                return Reason.UNAVAILABLE;
+            case DEADLINE_EXCEEDED:
+                return Reason.TIMEOUT;
+            default:
+                return Reason.UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.chotujobs.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Combinators for the Tasks returned by the FirestoreService async API. Every returned Task
+ * fails with a {@link FirestoreServiceException}, and completes on the main thread like the
+ * Firestore Tasks it wraps.
+ */
+public final class FirestoreTasks {
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private FirestoreTasks() {}
+
+    public static <T> Task<T> failed(FirestoreServiceException.Reason reason, String message) {
+        return Tasks.forException(new FirestoreServiceException(reason, message));
+    }
+
+    /**
+     * Results of all tasks, in the given order, once every one has succeeded. Fails with the
+     * first failure in list order, but only after all tasks have finished.
+     */
+    public static <T> Task<List<T>> allOf(List<Task<T>> tasks) {
+        return Tasks.whenAllComplete(tasks).continueWithTask(done -> {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Task<T> task : tasks) {
+                if (!task.isSuccessful()) {
+                    return Tasks.forException(FirestoreServiceException.from(task.getException()));
+                }
+                results.add(task.getResult());
+            }
+            return Tasks.forResult(results);
+        });
+    }
+
+    /**
+     * The result of whichever task succeeds first. Fails with the last failure if every
+     * task fails, or with INVALID_ARGUMENT for an empty list.
+     */
+    public static <T> Task<T> firstSuccess(List<Task<T>> tasks) {
+        if (tasks.isEmpty()) {
+            return failed(FirestoreServiceException.Reason.INVALID_ARGUMENT, "No tasks to race");
+        }
+        TaskCompletionSource<T> source = new TaskCompletionSource<>();
+        AtomicInteger remaining = new AtomicInteger(tasks.size());
+        for (Task<T> task : tasks) {
+            task.addOnCompleteListener(done -> {
+                if (done.isSuccessful()) {
+                    source.trySetResult(done.getResult());
+                } else if (remaining.decrementAndGet() == 0) {
+                    source.trySetException(FirestoreServiceException.from(done.getException()));
+                }
+            });
+        }
+        return source.getTask();
+    }
+
+    /**
+     * Fails with TIMEOUT if the task has not finished within timeoutMs. The underlying
+     * operation is not cancelled; a late result is simply ignored.
+     */
+    public static <T> Task<T> withTimeout(Task<T> task, long timeoutMs) {
+        TaskCompletionSource<T> source = new TaskCompletionSource<>();
+        Runnable timeout = () -> source.trySetException(new FirestoreServiceException(
+                FirestoreServiceException.Reason.TIMEOUT, "Timed out after " + timeoutMs + " ms"));
+        mainHandler.postDelayed(timeout, timeoutMs);
+        task.addOnCompleteListener(done -> {
+            mainHandler.removeCallbacks(timeout);
+            if (done.isSuccessful()) {
+                source.trySetResult(done.getResult());
+            } else {
+                source.trySetException(FirestoreServiceException.from(done.getException()));
+            }
+        });
+        return source.getTask();
+    }
+}
@@ -0,0 +1,153 @@
+package com.chotujobs.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Geohash encoding and the prefix ranges that cover a circle, for nearby-job queries.
+ * A geohash cell's prefix is shared by every point inside it, so a string range query
+ * on the stored hash returns everything in that cell.
+ */
+public final class GeoHashUtils {
+
+    // Precision stored on jobs (~1.2 m x 0.6 m cells); queries use shorter prefixes of it
+    public static final int STORED_PRECISION = 10;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    // Same sphere as distanceKm, so the ranges cover exactly what the distance check keeps
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final int MAX_QUERY_PRECISION = 9;
+
+    private GeoHashUtils() {}
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true; // bits alternate longitude, latitude, starting with longitude
+        int bit = 0;
+        int index = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    index = index * 2 + 1;
+                    minLng = mid;
+                } else {
+                    index = index * 2;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    index = index * 2 + 1;
+                    minLat = mid;
+                } else {
+                    index = index * 2;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(index));
+                bit = 0;
+                index = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Prefix ranges {start, end} whose union covers every point within radiusKm of the center:
+     * the cell containing the center plus its eight neighbours, at the finest precision whose
+     * cells are still at least radiusKm across. Usually nine ranges, fewer where cells coincide.
+     * A circle wider than a top-level cell, or reaching over a pole, gets every top-level cell
+     * in its latitude band instead.
+     */
+    public static List<String[]> queryBounds(double latitude, double longitude, double radiusKm) {
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double latRadiusDeg = Math.toDegrees(angularRadius);
+        double lngRadiusDeg = longitudeRadiusDegrees(latitude, angularRadius);
+
+        Set<String> cells = new LinkedHashSet<>();
+        if (latRadiusDeg > cellHeightDegrees(1) || lngRadiusDeg > cellWidthDegrees(1)) {
+            addTopLevelCells(latitude - latRadiusDeg, latitude + latRadiusDeg, cells);
+        } else {
+            int precision = 1;
+            while (precision < MAX_QUERY_PRECISION
+                    && cellHeightDegrees(precision + 1) >= latRadiusDeg
+                    && cellWidthDegrees(precision + 1) >= lngRadiusDeg) {
+                precision++;
+            }
+            double cellHeight = cellHeightDegrees(precision);
+            double cellWidth = cellWidthDegrees(precision);
+            for (int dLat = -1; dLat <= 1; dLat++) {
+                for (int dLng = -1; dLng <= 1; dLng++) {
+                    double lat = clampLatitude(latitude + dLat * cellHeight);
+                    double lng = wrapLongitude(longitude + dLng * cellWidth);
+                    cells.add(encode(lat, lng, precision));
+                }
+            }
+        }
+
+        List<String[]> bounds = new ArrayList<>();
+        for (String cell : cells) {
+            // '~' sorts after every base32 character, so the range holds exactly the hashes with this prefix
+            bounds.add(new String[]{cell, cell + "~"});
+        }
+        return bounds;
+    }
+
+    // Great-circle (haversine) distance between two points
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // Widest longitude offset of any point on the circle; 360 once the circle reaches a pole
+    private static double longitudeRadiusDegrees(double latitude, double angularRadius) {
+        double ratio = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+        if (angularRadius >= Math.PI / 2 || ratio >= 1) {
+            return 360;
+        }
+        return Math.toDegrees(Math.asin(ratio));
+    }
+
+    // Every precision-1 cell whose latitude rows overlap [minLat, maxLat], across all longitudes
+    private static void addTopLevelCells(double minLat, double maxLat, Set<String> cells) {
+        double height = cellHeightDegrees(1);
+        double width = cellWidthDegrees(1);
+        for (double rowLat = -90 + height / 2; rowLat < 90; rowLat += height) {
+            if (rowLat + height / 2 < minLat || rowLat - height / 2 > maxLat) continue;
+            for (double colLng = -180 + width / 2; colLng < 180; colLng += width) {
+                cells.add(encode(rowLat, colLng, 1));
+            }
+        }
+    }
+
+    private static double cellHeightDegrees(int precision) {
+        int latBits = (precision * 5) / 2;
+        return 180.0 / Math.pow(2, latBits);
+    }
+
+    private static double cellWidthDegrees(int precision) {
+        int lngBits = (precision * 5 + 1) / 2;
+        return 360.0 / Math.pow(2, lngBits);
+    }
+
+    private static double clampLatitude(double latitude) {
+        return Math.max(-90, Math.min(90, latitude));
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude > 180) return longitude - 360;
+        if (longitude < -180) return longitude + 360;
+        return longitude;
+    }
+}
@@ -0,0 +1,227 @@
+package com.chotujobs.services;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shrinks a picked image before it goes to Firebase Storage. The source is decoded with
+ * sampling, turned upright from its EXIF orientation, scaled to a maximum edge and
+ * re-encoded off the main thread; a small thumbnail is uploaded next to it so lists
+ * never have to download the full image.
+ */
+public class ImageUploader {
+
+    private static final String TAG = "ImageUploader";
+
+    public static final int DEFAULT_MAX_EDGE_PX = 1280;
+    public static final int DEFAULT_THUMBNAIL_EDGE_PX = 320;
+    public static final int DEFAULT_QUALITY = 80;
+    private static final String THUMBNAIL_SUFFIX = "_thumb";
+
+    // Decoding a full-size photo takes tens of MB; one at a time keeps memory bounded
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    public static class Result {
+        public final String imageUrl;
+        public final String thumbnailUrl;
+
+        Result(String imageUrl, String thumbnailUrl) {
+            this.imageUrl = imageUrl;
+            this.thumbnailUrl = thumbnailUrl;
+        }
+    }
+
+    private final ContentResolver contentResolver;
+    private final FirebaseStorage storage;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final int maxEdgePx;
+    private final int thumbnailEdgePx;
+    private final int quality;
+
+    public ImageUploader(Context context) {
+        this(context, DEFAULT_MAX_EDGE_PX, DEFAULT_THUMBNAIL_EDGE_PX, DEFAULT_QUALITY);
+    }
+
+    public ImageUploader(Context context, int maxEdgePx, int thumbnailEdgePx, int quality) {
+        this.contentResolver = context.getApplicationContext().getContentResolver();
+        this.storage = FirebaseStorage.getInstance();
+        this.maxEdgePx = maxEdgePx;
+        this.thumbnailEdgePx = thumbnailEdgePx;
+        this.quality = quality;
+    }
+
+    /**
+     * Processes and uploads the image at source under basePath (no extension). The thumbnail
+     * is stored at basePath + "_thumb". Delivers null if decoding or either upload fails.
+     */
+    public void upload(Uri source, String basePath, FirestoreService.OnCompleteListener<Result> listener) {
+        executor.execute(() -> {
+            byte[] full;
+            byte[] thumbnail;
+            try {
+                Bitmap bitmap = decodeUpright(source, maxEdgePx);
+                if (bitmap == null) {
+                    deliver(listener, null);
+                    return;
+                }
+                full = compress(bitmap);
+                Bitmap small = scaleToFit(bitmap, thumbnailEdgePx);
+                thumbnail = compress(small);
+                if (small != bitmap) small.recycle();
+                bitmap.recycle();
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                Log.e(TAG, "Error processing image " + source, e);
+                deliver(listener, null);
+                return;
+            }
+            mainHandler.post(() -> uploadBoth(basePath, full, thumbnail, listener));
+        });
+    }
+
+    private void uploadBoth(String basePath, byte[] full, byte[] thumbnail, FirestoreService.OnCompleteListener<Result> listener) {
+        String extension = useWebp() ? ".webp" : ".jpg";
+        StorageMetadata metadata = new StorageMetadata.Builder()
+                .setContentType(useWebp() ? "image/webp" : "image/jpeg")
+                .build();
+        StorageReference fullRef = storage.getReference().child(basePath + extension);
+        StorageReference thumbRef = storage.getReference().child(basePath + THUMBNAIL_SUFFIX + extension);
+
+        Task<Uri> fullUrl = fullRef.putBytes(full, metadata).continueWithTask(task -> {
+            if (!task.isSuccessful()) throw task.getException();
+            return fullRef.getDownloadUrl();
+        });
+        Task<Uri> thumbUrl = thumbRef.putBytes(thumbnail, metadata).continueWithTask(task -> {
+            if (!task.isSuccessful()) throw task.getException();
+            return thumbRef.getDownloadUrl();
+        });
+
+        Tasks.whenAllComplete(fullUrl, thumbUrl).addOnCompleteListener(done -> {
+            if (!fullUrl.isSuccessful()) {
+                Log.e(TAG, "Error uploading image " + basePath, fullUrl.getException());
+                listener.onComplete(null);
+                return;
+            }
+            // The full image alone is still usable; lists fall back to it without a thumbnail
+            String thumbnailUrl = null;
+            if (thumbUrl.isSuccessful()) {
+                thumbnailUrl = thumbUrl.getResult().toString();
+            } else {
+                Log.w(TAG, "Error uploading thumbnail " + basePath, thumbUrl.getException());
+            }
+            listener.onComplete(new Result(fullUrl.getResult().toString(), thumbnailUrl));
+        });
+    }
+
+    private Bitmap decodeUpright(Uri source, int maxEdge) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = contentResolver.openInputStream(source)) {
+            if (in == null) return null;
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            Log.e(TAG, "Not a decodable image: " + source);
+            return null;
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize(bounds.outWidth, bounds.outHeight, maxEdge);
+        Bitmap sampled;
+        try (InputStream in = contentResolver.openInputStream(source)) {
+            if (in == null) return null;
+            sampled = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (sampled == null) return null;
+
+        int rotation = readRotation(source);
+        float scale = Math.min(1f, (float) maxEdge / Math.max(sampled.getWidth(), sampled.getHeight()));
+        if (rotation == 0 && scale == 1f) {
+            return sampled;
+        }
+        Matrix matrix = new Matrix();
+        matrix.postScale(scale, scale);
+        matrix.postRotate(rotation);
+        Bitmap upright = Bitmap.createBitmap(sampled, 0, 0, sampled.getWidth(), sampled.getHeight(), matrix, true);
+        if (upright != sampled) sampled.recycle();
+        return upright;
+    }
+
+    // Largest power of two that still leaves the longer edge at or above maxEdge
+    static int sampleSize(int width, int height, int maxEdge) {
+        int longEdge = Math.max(width, height);
+        int sample = 1;
+        while (longEdge / (sample * 2) >= maxEdge) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    private int readRotation(Uri source) {
+        try (InputStream in = contentResolver.openInputStream(source)) {
+            if (in == null) return 0;
+            int orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+            switch (orientation) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException e) {
+            // PNGs and stripped images have no EXIF block
+            return 0;
+        }
+    }
+
+    private static Bitmap scaleToFit(Bitmap bitmap, int maxEdge) {
+        int longEdge = Math.max(bitmap.getWidth(), bitmap.getHeight());
+        if (longEdge <= maxEdge) return bitmap;
+        float scale = (float) maxEdge / longEdge;
+        return Bitmap.createScaledBitmap(bitmap,
+                Math.max(1, Math.round(bitmap.getWidth() * scale)),
+                Math.max(1, Math.round(bitmap.getHeight() * scale)),
+                true);
+    }
+
+    private byte[] compress(Bitmap bitmap) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(compressFormat(), quality, out);
+        return out.toByteArray();
+    }
+
+    // Lossy WebP is only selectable explicitly from Android 11; older devices get JPEG
+    private static boolean useWebp() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R;
+    }
+
+    private static Bitmap.CompressFormat compressFormat() {
+        return useWebp() ? Bitmap.CompressFormat.WEBP_LOSSY : Bitmap.CompressFormat.JPEG;
+    }
+
+    private void deliver(FirestoreService.OnCompleteListener<Result> listener, Result result) {
+        mainHandler.post(() -> listener.onComplete(result));
+    }
+}
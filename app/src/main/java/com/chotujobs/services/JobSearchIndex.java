@@ -0,0 +1,305 @@
+package com.chotujobs.services;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.chotujobs.models.Job;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * On-device full-text index over the jobs the feed has seen, backed by SQLite FTS4.
+ * Firestore has no keyword search, so the feed hands every job delta to this index and
+ * searchJobs answers from disk without any Firestore reads. The index survives restarts;
+ * jobs the feed has not seen for {@link #MAX_ENTRY_AGE_MS} are pruned on open.
+ */
+public class JobSearchIndex {
+
+    private static final String TAG = "JobSearchIndex";
+    private static final String DATABASE_NAME = "job_search.db";
+    private static final int DATABASE_VERSION = 2;
+
+    private static final String TABLE_JOBS = "jobs";
+    private static final String TABLE_FTS = "jobs_fts";
+
+    // Relevance weight per FTS column, in the order the columns are declared
+    private static final double[] COLUMN_WEIGHTS = {4.0, 2.0, 1.0, 1.0}; // title, category, requirements, location
+    private static final long MAX_ENTRY_AGE_MS = 14L * 24 * 60 * 60 * 1000;
+
+    private static JobSearchIndex instance;
+
+    private final Helper helper;
+    // One writer thread keeps index updates ordered and off the main thread
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private JobSearchIndex(Context context) {
+        helper = new Helper(context.getApplicationContext());
+        executor.execute(() -> prune(System.currentTimeMillis() - MAX_ENTRY_AGE_MS));
+    }
+
+    public static synchronized JobSearchIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new JobSearchIndex(context);
+        }
+        return instance;
+    }
+
+    public void indexJobsAsync(Collection<Job> jobs) {
+        if (jobs == null || jobs.isEmpty()) return;
+        List<Job> snapshot = new ArrayList<>(jobs);
+        executor.execute(() -> indexJobs(snapshot));
+    }
+
+    public void removeJobsAsync(Collection<String> jobIds) {
+        if (jobIds == null || jobIds.isEmpty()) return;
+        List<String> snapshot = new ArrayList<>(jobIds);
+        executor.execute(() -> removeJobs(snapshot));
+    }
+
+    // Runs behind any pending index updates, so results reflect every delta handed in before the call
+    public void searchJobs(String query, int limit, FirestoreService.OnCompleteListener<List<Job>> listener) {
+        executor.execute(() -> {
+            List<Job> results = searchJobs(query, limit);
+            mainHandler.post(() -> listener.onComplete(results));
+        });
+    }
+
+    void indexJobs(List<Job> jobs) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        long now = System.currentTimeMillis();
+        db.beginTransaction();
+        try {
+            for (Job job : jobs) {
+                if (job == null || job.getJobId() == null) continue;
+                if (job.getStatus() != null && !"active".equals(job.getStatus())) {
+                    deleteJob(db, job.getJobId());
+                    continue;
+                }
+                ContentValues row = new ContentValues();
+                row.put("job_id", job.getJobId());
+                row.put("contractor_id", job.getContractorId());
+                row.put("title", job.getTitle());
+                row.put("category", job.getCategory());
+                row.put("requirements", job.getRequirements());
+                row.put("location", job.getLocation());
+                row.put("start_date", job.getStartDate());
+                row.put("image_url", job.getImageUrl());
+                row.put("thumbnail_url", job.getThumbnailUrl());
+                row.put("status", job.getStatus());
+                row.put("timestamp", job.getTimestamp());
+                row.put("bid_limit", job.getBidLimit());
+                row.put("indexed_at", now);
+
+                long docId = findDocId(db, job.getJobId());
+                if (docId == -1) {
+                    docId = db.insert(TABLE_JOBS, null, row);
+                    if (docId == -1) continue;
+                } else {
+                    db.update(TABLE_JOBS, row, "id = ?", new String[]{String.valueOf(docId)});
+                    db.delete(TABLE_FTS, "docid = ?", new String[]{String.valueOf(docId)});
+                }
+
+                ContentValues text = new ContentValues();
+                text.put("docid", docId);
+                text.put("title", job.getTitle());
+                text.put("category", job.getCategory());
+                text.put("requirements", job.getRequirements());
+                text.put("location", job.getLocation());
+                db.insert(TABLE_FTS, null, text);
+            }
+            db.setTransactionSuccessful();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Error indexing jobs", e);
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    void removeJobs(List<String> jobIds) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String jobId : jobIds) {
+                deleteJob(db, jobId);
+            }
+            db.setTransactionSuccessful();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Error removing jobs from index", e);
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Ranked keyword search. Every word must match (as a prefix, after stemming) in any of
+     * title, category, requirements or location. Returns an empty list for a blank query.
+     */
+    public List<Job> searchJobs(String query, int limit) {
+        List<Job> results = new ArrayList<>();
+        String match = toMatchExpression(query);
+        if (match == null || limit <= 0) {
+            return results;
+        }
+
+        List<ScoredJob> scored = new ArrayList<>();
+        SQLiteDatabase db = helper.getReadableDatabase();
+        String sql = "SELECT j.job_id, j.contractor_id, j.title, j.category, j.requirements, j.location, "
+                + "j.start_date, j.image_url, j.thumbnail_url, j.status, j.timestamp, j.bid_limit, "
+                + "matchinfo(" + TABLE_FTS + ", 'pcnx') "
+                + "FROM " + TABLE_FTS + " JOIN " + TABLE_JOBS + " j ON j.id = " + TABLE_FTS + ".docid "
+                + "WHERE " + TABLE_FTS + " MATCH ?";
+        try (Cursor cursor = db.rawQuery(sql, new String[]{match})) {
+            while (cursor.moveToNext()) {
+                Job job = new Job();
+                job.setJobId(cursor.getString(0));
+                job.setContractorId(cursor.getString(1));
+                job.setTitle(cursor.getString(2));
+                job.setCategory(cursor.getString(3));
+                job.setRequirements(cursor.getString(4));
+                job.setLocation(cursor.getString(5));
+                job.setStartDate(cursor.getString(6));
+                job.setImageUrl(cursor.getString(7));
+                job.setThumbnailUrl(cursor.getString(8));
+                job.setStatus(cursor.getString(9));
+                job.setTimestamp(cursor.isNull(10) ? null : cursor.getLong(10));
+                job.setBidLimit(cursor.getInt(11));
+                scored.add(new ScoredJob(job, score(cursor.getBlob(12))));
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Error searching jobs for '" + query + "'", e);
+            return results;
+        }
+
+        // Best score first; newer jobs win ties
+        scored.sort((a, b) -> {
+            int byScore = Double.compare(b.score, a.score);
+            if (byScore != 0) return byScore;
+            long left = a.job.getTimestamp() != null ? a.job.getTimestamp() : 0L;
+            long right = b.job.getTimestamp() != null ? b.job.getTimestamp() : 0L;
+            return Long.compare(right, left);
+        });
+        for (int i = 0; i < scored.size() && i < limit; i++) {
+            results.add(scored.get(i).job);
+        }
+        return results;
+    }
+
+    // Turns free text into an FTS prefix query, dropping anything FTS would read as syntax
+    static String toMatchExpression(String query) {
+        if (query == null) return null;
+        StringBuilder match = new StringBuilder();
+        for (String token : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            if (match.length() > 0) match.append(' ');
+            match.append(token).append('*');
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+
+    /**
+     * TF-IDF style score from matchinfo 'pcnx': phrase count, column count, row count, then for
+     * every phrase/column pair the hits in this row, hits in all rows and rows with a hit.
+     */
+    static double score(byte[] matchInfo) {
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phrases = buffer.getInt(0);
+        int columns = buffer.getInt(4);
+        int rows = buffer.getInt(8);
+        double score = 0;
+        for (int p = 0; p < phrases; p++) {
+            for (int c = 0; c < columns; c++) {
+                int offset = 12 + 12 * (p * columns + c);
+                int hitsInRow = buffer.getInt(offset);
+                int rowsWithHits = buffer.getInt(offset + 8);
+                if (hitsInRow == 0 || rowsWithHits == 0) continue;
+                double weight = c < COLUMN_WEIGHTS.length ? COLUMN_WEIGHTS[c] : 1.0;
+                double idf = Math.log(1.0 + (double) rows / rowsWithHits);
+                score += weight * idf * hitsInRow / (hitsInRow + 1.0);
+            }
+        }
+        return score;
+    }
+
+    private void prune(long indexedBefore) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            String[] args = {String.valueOf(indexedBefore)};
+            db.execSQL("DELETE FROM " + TABLE_FTS + " WHERE docid IN (SELECT id FROM " + TABLE_JOBS
+                    + " WHERE indexed_at < ?)", args);
+            db.delete(TABLE_JOBS, "indexed_at < ?", args);
+            db.setTransactionSuccessful();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Error pruning job index", e);
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static long findDocId(SQLiteDatabase db, String jobId) {
+        try (Cursor cursor = db.query(TABLE_JOBS, new String[]{"id"}, "job_id = ?",
+                new String[]{jobId}, null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : -1;
+        }
+    }
+
+    private static void deleteJob(SQLiteDatabase db, String jobId) {
+        long docId = findDocId(db, jobId);
+        if (docId == -1) return;
+        String[] args = {String.valueOf(docId)};
+        db.delete(TABLE_FTS, "docid = ?", args);
+        db.delete(TABLE_JOBS, "id = ?", args);
+    }
+
+    private static class ScoredJob {
+        final Job job;
+        final double score;
+
+        ScoredJob(Job job, double score) {
+            this.job = job;
+            this.score = score;
+        }
+    }
+
+    private static class Helper extends SQLiteOpenHelper {
+
+        Helper(Context context) {
+            super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            // Display fields live in a plain table keyed by job_id; the FTS table only holds searchable text
+            db.execSQL("CREATE TABLE " + TABLE_JOBS + " ("
+                    + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "job_id TEXT NOT NULL UNIQUE, "
+                    + "contractor_id TEXT, title TEXT, category TEXT, requirements TEXT, location TEXT, "
+                    + "start_date TEXT, image_url TEXT, thumbnail_url TEXT, status TEXT, timestamp INTEGER, bid_limit INTEGER, "
+                    + "indexed_at INTEGER NOT NULL)");
+            db.execSQL("CREATE INDEX index_jobs_indexed_at ON " + TABLE_JOBS + " (indexed_at)");
+            // porter stems "tiles"/"tiling" to "tile"; prefix indexes keep as-you-type queries fast
+            db.execSQL("CREATE VIRTUAL TABLE " + TABLE_FTS + " USING fts4("
+                    + "title, category, requirements, location, tokenize=porter, prefix=\"2,3\")");
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            // The index is rebuilt from the feed, so it is simply dropped
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_FTS);
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_JOBS);
+            onCreate(db);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.chotujobs.services;
+
+import android.os.SystemClock;
+import com.chotujobs.models.User;
+import com.google.android.gms.tasks.Task;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of user profiles shared by every FirestoreService call.
+ * Entries expire after a fixed TTL, the least recently used entry is evicted once
+ * the cache is full, and a read that is already in flight is shared by every caller
+ * asking for the same uid.
+ */
+final class UserProfileCache {
+
+    private static final class Entry {
+        final User user;
+        final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<String, Task<User>> inFlight = new HashMap<>();
+
+    UserProfileCache(int maxEntries, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        // Access-ordered so iteration starts at the least recently used entry
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized User get(String uid) {
+        Entry entry = entries.get(uid);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= SystemClock.elapsedRealtime()) {
+            entries.remove(uid);
+            return null;
+        }
+        return entry.user;
+    }
+
+    synchronized void put(String uid, User user) {
+        if (uid == null || user == null) {
+            return;
+        }
+        entries.put(uid, new Entry(user, SystemClock.elapsedRealtime() + ttlMillis));
+    }
+
+    synchronized Task<User> getInFlight(String uid) {
+        return inFlight.get(uid);
+    }
+
+    synchronized void putInFlight(String uid, Task<User> task) {
+        inFlight.put(uid, task);
+    }
+
+    /**
+     * Records the result of a read started with {@link #putInFlight}. The result is only
+     * cached if the read was not invalidated while it was running.
+     */
+    synchronized void completeInFlight(String uid, Task<User> task, User user) {
+        if (inFlight.get(uid) != task) {
+            return;
+        }
+        inFlight.remove(uid);
+        put(uid, user);
+    }
+
+    synchronized void invalidate(String uid) {
+        entries.remove(uid);
+        inFlight.remove(uid);
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        inFlight.clear();
+    }
+}
@@ -0,0 +1,161 @@
+package com.chotujobs.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class GeoHashUtilsTest {
+
+    private static final double MUMBAI_LAT = 19.0760;
+    private static final double MUMBAI_LNG = 72.8777;
+
+    @Test
+    public void encode_matchesReferenceHashes() {
+        assertEquals("u4pruydqqvj", GeoHashUtils.encode(57.64911, 10.40744, 11));
+        assertEquals("s0000", GeoHashUtils.encode(0, 0, 5));
+        assertEquals("00000", GeoHashUtils.encode(-90, -180, 5));
+        assertEquals("zzzzz", GeoHashUtils.encode(90, 180, 5));
+    }
+
+    @Test
+    public void encode_shorterPrecisionIsPrefix() {
+        String full = GeoHashUtils.encode(MUMBAI_LAT, MUMBAI_LNG, GeoHashUtils.STORED_PRECISION);
+        assertEquals(GeoHashUtils.STORED_PRECISION, full.length());
+        for (int precision = 1; precision < GeoHashUtils.STORED_PRECISION; precision++) {
+            assertEquals(full.substring(0, precision), GeoHashUtils.encode(MUMBAI_LAT, MUMBAI_LNG, precision));
+        }
+    }
+
+    @Test
+    public void queryBounds_precisionShrinksAsRadiusGrows() {
+        assertEquals(5, precisionOf(GeoHashUtils.queryBounds(MUMBAI_LAT, MUMBAI_LNG, 1)));
+        assertEquals(4, precisionOf(GeoHashUtils.queryBounds(MUMBAI_LAT, MUMBAI_LNG, 5)));
+        assertEquals(3, precisionOf(GeoHashUtils.queryBounds(MUMBAI_LAT, MUMBAI_LNG, 50)));
+        assertEquals(2, precisionOf(GeoHashUtils.queryBounds(MUMBAI_LAT, MUMBAI_LNG, 500)));
+    }
+
+    @Test
+    public void queryBounds_zeroRadiusStopsAtMaxPrecision() {
+        assertEquals(9, precisionOf(GeoHashUtils.queryBounds(MUMBAI_LAT, MUMBAI_LNG, 0)));
+    }
+
+    @Test
+    public void queryBounds_centerCellPlusDistinctNeighbours() {
+        List<String[]> bounds = GeoHashUtils.queryBounds(MUMBAI_LAT, MUMBAI_LNG, 5);
+        assertEquals(9, bounds.size());
+        Set<String> cells = new HashSet<>();
+        for (String[] bound : bounds) {
+            assertEquals(bound[0] + "~", bound[1]);
+            cells.add(bound[0]);
+        }
+        assertEquals(9, cells.size());
+        assertTrue(cells.contains(GeoHashUtils.encode(MUMBAI_LAT, MUMBAI_LNG, 4)));
+    }
+
+    @Test
+    public void queryBounds_wideCircleGetsEveryTopLevelCellInItsBand() {
+        // 5000 km from Mumbai spans more than one 45 degree cell of longitude: three rows of eight
+        List<String[]> bounds = GeoHashUtils.queryBounds(MUMBAI_LAT, MUMBAI_LNG, 5000);
+        assertEquals(1, precisionOf(bounds));
+        assertEquals(24, bounds.size());
+    }
+
+    @Test
+    public void queryBounds_circleOverPoleSpansAllLongitudes() {
+        // 25 km from 89.9N reaches past the pole, so the top row is needed at every longitude
+        List<String[]> bounds = GeoHashUtils.queryBounds(89.9, 10, 25);
+        assertEquals(1, precisionOf(bounds));
+        assertEquals(8, bounds.size());
+    }
+
+    @Test
+    public void queryBounds_coincidingCellsAreMerged() {
+        // Near a pole the rows above the center clamp into the center's own row
+        List<String[]> bounds = GeoHashUtils.queryBounds(90, 0, 0.001);
+        assertTrue(bounds.size() < 9);
+    }
+
+    @Test
+    public void queryBounds_coversEveryPointInRadius() {
+        double[][] centers = {
+                {MUMBAI_LAT, MUMBAI_LNG},
+                {0, 179.99},      // neighbours wrap across the antimeridian
+                {-33.8688, -180}, // on the antimeridian itself
+                {89.9, 10},       // cells get very wide near the poles
+                {0.0001, 0.0001}, // corner shared by four top-level cells
+        };
+        double[] radii = {0.5, 5, 25, 100};
+        Random random = new Random(42);
+        for (double[] center : centers) {
+            for (double radiusKm : radii) {
+                List<String[]> bounds = GeoHashUtils.queryBounds(center[0], center[1], radiusKm);
+                for (int i = 0; i < 500; i++) {
+                    double[] point = destination(center[0], center[1],
+                            random.nextDouble() * 360, random.nextDouble() * radiusKm * 0.999);
+                    String hash = GeoHashUtils.encode(point[0], point[1], GeoHashUtils.STORED_PRECISION);
+                    if (!isCovered(hash, bounds)) {
+                        fail("Point " + point[0] + "," + point[1] + " within " + radiusKm + " km of "
+                                + center[0] + "," + center[1] + " is outside every query range");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void distanceKm_knownDistances() {
+        assertEquals(0, GeoHashUtils.distanceKm(MUMBAI_LAT, MUMBAI_LNG, MUMBAI_LAT, MUMBAI_LNG), 1e-9);
+        // Mumbai to Pune, about 120 km in a straight line
+        assertEquals(119.9, GeoHashUtils.distanceKm(MUMBAI_LAT, MUMBAI_LNG, 18.5204, 73.8567), 0.5);
+        // One degree of latitude
+        assertEquals(111.19, GeoHashUtils.distanceKm(0, 0, 1, 0), 0.01);
+        // Antipodes: half the circumference
+        assertEquals(Math.PI * 6371.0, GeoHashUtils.distanceKm(0, 0, 0, 180), 1e-6);
+    }
+
+    @Test
+    public void distanceKm_isShortWayAcrossAntimeridian() {
+        assertEquals(GeoHashUtils.distanceKm(0, 179.5, 0, -179.5), GeoHashUtils.distanceKm(0, -0.5, 0, 0.5), 1e-9);
+        assertTrue(GeoHashUtils.distanceKm(0, 179.5, 0, -179.5) < 112);
+    }
+
+    private static int precisionOf(List<String[]> bounds) {
+        int precision = bounds.get(0)[0].length();
+        for (String[] bound : bounds) {
+            assertEquals(precision, bound[0].length());
+        }
+        return precision;
+    }
+
+    private static boolean isCovered(String hash, List<String[]> bounds) {
+        for (String[] bound : bounds) {
+            if (hash.compareTo(bound[0]) >= 0 && hash.compareTo(bound[1]) <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Point reached by travelling distanceKm from the start on the given bearing
+    private static double[] destination(double latitude, double longitude, double bearingDegrees, double distanceKm) {
+        double angular = distanceKm / 6371.0;
+        double bearing = Math.toRadians(bearingDegrees);
+        double lat1 = Math.toRadians(latitude);
+        double lng1 = Math.toRadians(longitude);
+        double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angular)
+                + Math.cos(lat1) * Math.sin(angular) * Math.cos(bearing));
+        double lng2 = lng1 + Math.atan2(Math.sin(bearing) * Math.sin(angular) * Math.cos(lat1),
+                Math.cos(angular) - Math.sin(lat1) * Math.sin(lat2));
+        double lngDegrees = Math.toDegrees(lng2);
+        if (lngDegrees > 180) lngDegrees -= 360;
+        if (lngDegrees < -180) lngDegrees += 360;
+        return new double[]{Math.toDegrees(lat2), lngDegrees};
+    }
+}
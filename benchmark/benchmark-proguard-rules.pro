@@ -0,0 +1,13 @@
+# Shrink and optimize like a release build, but keep names readable in benchmark traces
+-dontobfuscate
+
+-ignorewarnings
+-keepattributes *Annotation*
+
+-dontnote junit.framework.**
+-dontnote junit.runner.**
+-dontwarn androidx.test.**
+-dontwarn org.junit.**
+-dontwarn org.hamcrest.**
+
+-keepclasseswithmembers @org.junit.runner.RunWith public class *
@@ -0,0 +1,38 @@
+plugins {
+    alias(libs.plugins.android.library)
+}
+
+// Microbenchmarks for code in :model. Kept out of :app so they run against a release-like
+// build: minified by R8 and non-debuggable (see src/androidTest/AndroidManifest.xml)
+android {
+    namespace = "com.chotujobs.benchmark"
+    compileSdk = 36
+
+    defaultConfig {
+        minSdk = 28
+
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+    }
+
+    testBuildType = "release"
+    buildTypes {
+        release {
+            isMinifyEnabled = true
+            proguardFiles(
+                getDefaultProguardFile("proguard-android-optimize.txt"),
+                "benchmark-proguard-rules.pro"
+            )
+        }
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_17
+        targetCompatibility = JavaVersion.VERSION_17
+    }
+}
+
+dependencies {
+    androidTestImplementation(project(":model"))
+    androidTestImplementation(libs.ext.junit)
+    androidTestImplementation(libs.benchmark.junit4)
+}
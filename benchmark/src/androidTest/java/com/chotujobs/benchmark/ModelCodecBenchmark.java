@@ -0,0 +1,236 @@
+package com.chotujobs.benchmark;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.chotujobs.models.Chat;
+import com.chotujobs.models.Job;
+import com.chotujobs.models.Message;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.MemoryCacheSettings;
+import com.google.firebase.firestore.Source;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-document cost of the hand-written codecs against Firestore's own reflective mapping:
+ * DocumentSnapshot.toObject for reads and set() with the model object for writes. Both sides
+ * work on the same real snapshots, read back from an offline in-memory Firestore instance.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ModelCodecBenchmark {
+
+    private static FirebaseFirestore db;
+    private static DocumentSnapshot jobSnapshot;
+    private static DocumentSnapshot messageSnapshot;
+    private static DocumentSnapshot chatSnapshot;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @BeforeClass
+    public static void setUpFirestore() throws Exception {
+        // Never goes online, so the options only need to be well-formed
+        FirebaseOptions options = new FirebaseOptions.Builder()
+                .setApplicationId("1:000000000000:android:0000000000000000")
+                .setApiKey("benchmark-api-key")
+                .setProjectId("chotujobs-benchmark")
+                .build();
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = FirebaseFirestore.getInstance(FirebaseApp.initializeApp(context, options, "codec-benchmark"));
+        db.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(MemoryCacheSettings.newBuilder().build())
+                .build());
+        Tasks.await(db.disableNetwork());
+
+        jobSnapshot = writeAndRead(db.collection("jobs").document("job1"), jobData());
+        messageSnapshot = writeAndRead(db.collection("chats").document("chat1")
+                .collection("messages").document("message1"), messageData());
+        chatSnapshot = writeAndRead(db.collection("chats").document("chat1"), chatData());
+    }
+
+    @Test
+    public void jobToObject() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            jobSnapshot.toObject(Job.class);
+        }
+    }
+
+    @Test
+    public void jobFromSnapshot() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Job.fromSnapshot(jobSnapshot);
+        }
+    }
+
+    @Test
+    public void messageToObject() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            messageSnapshot.toObject(Message.class);
+        }
+    }
+
+    @Test
+    public void messageFromSnapshot() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Message.fromSnapshot(messageSnapshot);
+        }
+    }
+
+    @Test
+    public void chatToObject() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            chatSnapshot.toObject(Chat.class);
+        }
+    }
+
+    @Test
+    public void chatFromSnapshot() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Chat.fromSnapshot(chatSnapshot);
+        }
+    }
+
+    // Writes are staged in a fresh batch that is never committed: only encoding is measured
+    @Test
+    public void jobSetObject() {
+        Job job = Job.fromSnapshot(jobSnapshot);
+        DocumentReference ref = jobSnapshot.getReference();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            db.batch().set(ref, job);
+        }
+    }
+
+    @Test
+    public void jobSetToMap() {
+        Job job = Job.fromSnapshot(jobSnapshot);
+        DocumentReference ref = jobSnapshot.getReference();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            db.batch().set(ref, job.toMap());
+        }
+    }
+
+    // Not a benchmark: the two paths must agree, or the numbers above compare different work
+    @Test
+    public void codecsMatchReflectiveMapper() throws Exception {
+        Job reflective = jobSnapshot.toObject(Job.class);
+        Job handWritten = Job.fromSnapshot(jobSnapshot);
+        assertEquals(reflective.getTitle(), handWritten.getTitle());
+        assertEquals(reflective.getTimestamp(), handWritten.getTimestamp());
+        assertEquals(reflective.getBidLimit(), handWritten.getBidLimit());
+        assertEquals(reflective.getLocationKeys(), handWritten.getLocationKeys());
+        assertEquals(reflective.getBudgetBand(), handWritten.getBudgetBand());
+        assertEquals(reflective.getMinBidAmount(), handWritten.getMinBidAmount());
+        assertEquals(reflective.getLastBidAt(), handWritten.getLastBidAt());
+
+        // Both write paths must store the same document
+        DocumentSnapshot setObject = writeAndRead(db.collection("jobs").document("setObject"), reflective);
+        DocumentSnapshot setMap = writeAndRead(db.collection("jobs").document("setMap"), reflective.toMap());
+        assertEquals(setObject.getData(), setMap.getData());
+
+        Message reflectiveMessage = messageSnapshot.toObject(Message.class);
+        Message handWrittenMessage = Message.fromSnapshot(messageSnapshot);
+        assertEquals(reflectiveMessage.getMessage(), handWrittenMessage.getMessage());
+        assertEquals(reflectiveMessage.getTimestamp(), handWrittenMessage.getTimestamp());
+
+        Chat reflectiveChat = chatSnapshot.toObject(Chat.class);
+        Chat handWrittenChat = Chat.fromSnapshot(chatSnapshot);
+        assertEquals(reflectiveChat.getParticipants(), handWrittenChat.getParticipants());
+        assertEquals(reflectiveChat.getUnreadCounts(), handWrittenChat.getUnreadCounts());
+        assertEquals(reflectiveChat.getLastMessageTimestamp(), handWrittenChat.getLastMessageTimestamp());
+    }
+
+    // With the network off the write stays pending, but the cache already serves it
+    private static DocumentSnapshot writeAndRead(DocumentReference ref, Object data) throws Exception {
+        ref.set(data);
+        return Tasks.await(ref.get(Source.CACHE));
+    }
+
+    private static Map<String, Object> jobData() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("contractorId", "contractor-123");
+        data.put("title", "Paint a two-bedroom flat");
+        data.put("category", "Painting");
+        data.put("startDate", "2024-07-01");
+        data.put("location", "Andheri, Mumbai");
+        data.put("imageUrl", "https://example.com/jobs/1.webp");
+        data.put("thumbnailUrl", "https://example.com/jobs/1_thumb.webp");
+        data.put("status", "active");
+        data.put("winnerUserId", null);
+        data.put("timestamp", 1719800000000L);
+        data.put("requirements", "Two painters, own brushes");
+        data.put("bidLimit", 15000L);
+        data.put("locationKeys", Arrays.asList("andheri, mumbai", "andheri", "mumbai"));
+        data.put("budgetBand", "FROM_5K_TO_20K");
+        data.put("latitude", 19.1136);
+        data.put("longitude", 72.8697);
+        data.put("geohash", "te7ud2ev");
+        data.put("bidCount", 4L);
+        data.put("pendingBidCount", 3L);
+        data.put("minBidAmount", 12000.0);
+        data.put("lastBidAt", new Timestamp(new Date(1719900000000L)));
+        return data;
+    }
+
+    private static Map<String, Object> messageData() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("senderId", "contractor-123");
+        data.put("receiverId", "labourer-456");
+        data.put("message", "Can you start on Monday?");
+        data.put("timestamp", new Timestamp(new Date(1719900000000L)));
+        return data;
+    }
+
+    private static Map<String, Object> chatData() {
+        Map<String, Object> first = new HashMap<>();
+        first.put("name", "Asha");
+        first.put("profileImageUrl", "https://example.com/users/1_thumb.webp");
+        first.put("role", "contractor");
+        Map<String, Object> second = new HashMap<>();
+        second.put("name", "Ravi");
+        second.put("profileImageUrl", null);
+        second.put("role", "labourer");
+        Map<String, Object> participants = new HashMap<>();
+        participants.put("contractor-123", first);
+        participants.put("labourer-456", second);
+        Map<String, Object> unreadCounts = new HashMap<>();
+        unreadCounts.put("labourer-456", 2L);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("userIds", Arrays.asList("labourer-456", "contractor-123"));
+        data.put("lastMessage", "Can you start on Monday?");
+        data.put("lastMessageTimestamp", new Timestamp(new Date(1719900000000L)));
+        data.put("participants", participants);
+        data.put("unreadCounts", unreadCounts);
+        return data;
+    }
+}
@@ -0,0 +1,49 @@
+plugins {
+    alias(libs.plugins.android.test)
+}
+
+android {
+    namespace = "com.chotujobs.macrobenchmark"
+    compileSdk = 36
+
+    defaultConfig {
+        minSdk = 28
+        targetSdk = 34
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+        // Host of the Firebase emulators as seen from the device; see firebaseEmulatorHost in :app
+        testInstrumentationRunnerArguments["firebaseEmulatorHost"] =
+            (findProperty("firebaseEmulatorHost") as String?) ?: "10.0.2.2"
+    }
+
+    buildTypes {
+        // Matches the app's benchmark build type, which points at the emulators
+        create("benchmark") {
+            isDebuggable = true
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+        }
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_17
+        targetCompatibility = JavaVersion.VERSION_17
+    }
+
+    targetProjectPath = ":app"
+    experimentalProperties["android.experimental.self-instrumenting"] = true
+}
+
+dependencies {
+    // Fixture jobs get their derived fields from the app's own JobFilter
+    implementation(project(":model"))
+    implementation(libs.ext.junit)
+    implementation(libs.uiautomator)
+    implementation(libs.benchmark.macro.junit4)
+}
+
+androidComponents {
+    beforeVariants(selector().all()) {
+        it.enable = it.buildType == "benchmark"
+    }
+}
@@ -0,0 +1,63 @@
+package com.chotujobs.macrobenchmark;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.BySelector;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import java.io.IOException;
+
+// UI steps shared by the benchmarks, driven through the app's view ids
+final class AppFlows {
+
+    static final String PACKAGE_NAME = "com.chotujobs";
+
+    // Generous, since the first emulator round trip after a cleared cache can be slow
+    private static final long TIMEOUT_MS = 30_000;
+
+    private AppFlows() {}
+
+    /**
+     * Clears any previous session and signs in through the email form. Afterwards LoginActivity
+     * goes straight to the home screen, which is the path every startup iteration measures.
+     */
+    static void signIn(String email) throws IOException {
+        UiDevice device = UiDevice.getInstance(InstrumentationRegistry.getInstrumentation());
+        device.executeShellCommand("pm clear " + PACKAGE_NAME);
+        device.executeShellCommand("am start -W -n " + PACKAGE_NAME + "/.LoginActivity");
+
+        find(device, By.res(PACKAGE_NAME, "btnEmailLogin")).click();
+        find(device, By.res(PACKAGE_NAME, "emailEditText")).setText(email);
+        find(device, By.res(PACKAGE_NAME, "passwordEditText")).setText(EmulatorFixtures.PASSWORD);
+        find(device, By.res(PACKAGE_NAME, "btnAction")).click();
+        waitForJobList(device);
+        device.pressHome();
+    }
+
+    // The labourer feed and the contractor's own jobs share the list and title ids
+    static UiObject2 waitForJobList(UiDevice device) {
+        return find(device, By.res(PACKAGE_NAME, "recyclerView")
+                .hasDescendant(By.res(PACKAGE_NAME, "titleTextView")));
+    }
+
+    static void openChatList(UiDevice device) {
+        find(device, By.res(PACKAGE_NAME, "nav_messages")).click();
+        find(device, By.res(PACKAGE_NAME, "userNameTextView"));
+    }
+
+    static void openFirstChat(UiDevice device) {
+        find(device, By.res(PACKAGE_NAME, "userNameTextView")).click();
+        find(device, By.res(PACKAGE_NAME, "messageTextView"));
+    }
+
+    private static UiObject2 find(UiDevice device, BySelector selector) {
+        UiObject2 object = device.wait(Until.findObject(selector), TIMEOUT_MS);
+        if (object == null) {
+            throw new IllegalStateException("Timed out waiting for " + selector
+                    + "; are the Firebase emulators running and seeded?");
+        }
+        return object;
+    }
+}
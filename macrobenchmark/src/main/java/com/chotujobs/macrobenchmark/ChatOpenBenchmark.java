@@ -0,0 +1,63 @@
+package com.chotujobs.macrobenchmark;
+
+import android.content.Intent;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Time from tapping a chat to its first message on screen, read from the trace section that
+ * ChatActivity opens in onCreate and closes when the message list first has items.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ChatOpenBenchmark {
+
+    private static final int ITERATIONS = 10;
+    // Must match ChatActivity.FIRST_MESSAGE_SECTION
+    private static final String FIRST_MESSAGE_SECTION = "ChatActivity.firstMessage";
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void seedEmulators() throws Exception {
+        EmulatorFixtures.seed();
+    }
+
+    @Test
+    public void openChat() throws Exception {
+        AppFlows.signIn(EmulatorFixtures.LABOURER_EMAIL);
+        benchmarkRule.measureRepeated(
+                AppFlows.PACKAGE_NAME,
+                Collections.singletonList(new TraceSectionMetric(FIRST_MESSAGE_SECTION)),
+                new CompilationMode.None(),
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    // A fresh task, so the chat left open by the last iteration is not restored
+                    scope.startActivityAndWait(intent -> {
+                        intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TASK);
+                        return Unit.INSTANCE;
+                    });
+                    AppFlows.waitForJobList(scope.getDevice());
+                    AppFlows.openChatList(scope.getDevice());
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    AppFlows.openFirstChat(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
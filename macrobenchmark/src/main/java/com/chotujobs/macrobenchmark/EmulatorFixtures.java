@@ -0,0 +1,228 @@
+package com.chotujobs.macrobenchmark;
+
+import android.os.Bundle;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.chotujobs.models.JobFilter;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Seeds the local Firebase emulators with the same fixture data before every benchmark class,
+ * so numbers can be reproduced offline: one contractor who owns {@link #JOB_COUNT} active jobs,
+ * one labourer, and a chat between them holding {@link #MESSAGE_COUNT} messages. Job and
+ * profile images are left out so nothing is fetched from outside the emulators.
+ */
+final class EmulatorFixtures {
+
+    static final String CONTRACTOR_EMAIL = "contractor@fixtures.chotujobs.test";
+    static final String LABOURER_EMAIL = "labourer@fixtures.chotujobs.test";
+    static final String PASSWORD = "fixture-password";
+
+    static final int JOB_COUNT = 150;
+    static final int MESSAGE_COUNT = 60;
+
+    // Must match project_id in app/google-services.json; the emulators run in single-project mode
+    private static final String PROJECT_ID = "chotujobs2";
+    private static final int FIRESTORE_PORT = 8080;
+    private static final int AUTH_PORT = 9099;
+    private static final String DOCUMENTS = "projects/" + PROJECT_ID + "/databases/(default)/documents";
+
+    // Fixed base time so every run seeds identical documents
+    private static final long BASE_TIME_MS = 1719800000000L;
+    private static final String[] LOCATIONS = {"Andheri, Mumbai", "Kothrud, Pune", "Whitefield, Bengaluru"};
+
+    private EmulatorFixtures() {}
+
+    static void seed() throws IOException, JSONException {
+        String host = emulatorHost();
+        request("DELETE", "http://" + host + ":" + FIRESTORE_PORT + "/emulator/v1/" + DOCUMENTS, null);
+        request("DELETE", "http://" + host + ":" + AUTH_PORT + "/emulator/v1/projects/" + PROJECT_ID + "/accounts", null);
+
+        String contractorId = signUp(host, CONTRACTOR_EMAIL);
+        String labourerId = signUp(host, LABOURER_EMAIL);
+
+        JSONArray writes = new JSONArray();
+        writes.put(write("users/" + contractorId, user(contractorId, "Asha Builders", CONTRACTOR_EMAIL, "contractor")));
+        writes.put(write("users/" + labourerId, user(labourerId, "Ravi Kumar", LABOURER_EMAIL, "labourer")));
+        for (int i = 0; i < JOB_COUNT; i++) {
+            String jobId = String.format(Locale.ROOT, "job%03d", i);
+            writes.put(write("jobs/" + jobId, job(jobId, contractorId, i)));
+        }
+
+        // Same id scheme as FirestoreService.createChat: the larger uid first
+        String first = contractorId.compareTo(labourerId) > 0 ? contractorId : labourerId;
+        String second = first.equals(contractorId) ? labourerId : contractorId;
+        String chatId = first + second;
+        long lastMessageAt = BASE_TIME_MS + MESSAGE_COUNT * 60_000L;
+        writes.put(write("chats/" + chatId, chat(chatId, contractorId, labourerId, lastMessageAt)));
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            long sentAt = BASE_TIME_MS + (i + 1) * 60_000L;
+            // Message ids lead with the send time, like FirestoreService.newMessageId
+            String messageId = String.format(Locale.ROOT, "%013d_fixture%02d", sentAt, i);
+            boolean fromContractor = i % 2 == 0;
+            writes.put(write("chats/" + chatId + "/messages/" + messageId, message(messageId,
+                    fromContractor ? contractorId : labourerId, fromContractor ? labourerId : contractorId, i, sentAt)));
+        }
+
+        JSONObject body = new JSONObject().put("writes", writes);
+        request("POST", "http://" + host + ":" + FIRESTORE_PORT + "/v1/" + DOCUMENTS + ":commit", body);
+    }
+
+    static String emulatorHost() {
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        return arguments.getString("firebaseEmulatorHost", "10.0.2.2");
+    }
+
+    private static String signUp(String host, String email) throws IOException, JSONException {
+        JSONObject body = new JSONObject()
+                .put("email", email)
+                .put("password", PASSWORD)
+                .put("returnSecureToken", true);
+        // The auth emulator accepts any API key
+        JSONObject response = request("POST", "http://" + host + ":" + AUTH_PORT
+                + "/identitytoolkit.googleapis.com/v1/accounts:signUp?key=fixture-key", body);
+        return response.getString("localId");
+    }
+
+    private static JSONObject user(String uid, String name, String email, String role) throws JSONException {
+        return new JSONObject()
+                .put("userId", string(uid))
+                .put("name", string(name))
+                .put("email", string(email))
+                .put("role", string(role))
+                .put("yearsOfExperience", integer(role.equals("labourer") ? 6 : 0));
+    }
+
+    private static JSONObject job(String jobId, String contractorId, int index) throws JSONException {
+        String location = LOCATIONS[index % LOCATIONS.length];
+        int bidLimit = 5000 + (index % 10) * 1000;
+        return new JSONObject()
+                .put("jobId", string(jobId))
+                .put("contractorId", string(contractorId))
+                .put("title", string("Fixture job " + (index + 1)))
+                .put("category", string(JobFilter.CATEGORIES.get(index % JobFilter.CATEGORIES.size())))
+                .put("startDate", string("2024-07-01"))
+                .put("location", string(location))
+                .put("status", string("active"))
+                .put("timestamp", integer(BASE_TIME_MS - index * 3_600_000L))
+                .put("requirements", string("Two workers for " + (index % 5 + 1) + " days, tools provided"))
+                .put("bidLimit", integer(bidLimit))
+                // Derived fields, computed as FirestoreService.createJob does
+                .put("locationKeys", array(JobFilter.locationKeys(location).toArray(new String[0])))
+                .put("budgetBand", string(JobFilter.BudgetBand.forAmount(bidLimit).name()))
+                .put("bidCount", integer(0))
+                .put("pendingBidCount", integer(0));
+    }
+
+    private static JSONObject chat(String chatId, String contractorId, String labourerId, long lastMessageAt) throws JSONException {
+        JSONObject participants = new JSONObject()
+                .put(contractorId, map(new JSONObject()
+                        .put("name", string("Asha Builders"))
+                        .put("role", string("contractor"))))
+                .put(labourerId, map(new JSONObject()
+                        .put("name", string("Ravi Kumar"))
+                        .put("role", string("labourer"))));
+        return new JSONObject()
+                .put("chatId", string(chatId))
+                .put("userIds", array(labourerId, contractorId))
+                .put("lastMessage", string("Fixture message " + MESSAGE_COUNT))
+                .put("lastMessageTimestamp", timestamp(lastMessageAt))
+                .put("participants", map(participants))
+                .put("unreadCounts", map(new JSONObject()
+                        .put(contractorId, integer(0))
+                        .put(labourerId, integer(0))));
+    }
+
+    private static JSONObject message(String messageId, String senderId, String receiverId, int index, long sentAt) throws JSONException {
+        return new JSONObject()
+                .put("messageId", string(messageId))
+                .put("senderId", string(senderId))
+                .put("receiverId", string(receiverId))
+                .put("message", string("Fixture message " + (index + 1)))
+                .put("timestamp", timestamp(sentAt));
+    }
+
+    // Firestore REST encoding of document writes and field values
+
+    private static JSONObject write(String path, JSONObject fields) throws JSONException {
+        return new JSONObject().put("update", new JSONObject()
+                .put("name", DOCUMENTS + "/" + path)
+                .put("fields", fields));
+    }
+
+    private static JSONObject string(String value) throws JSONException {
+        return new JSONObject().put("stringValue", value);
+    }
+
+    private static JSONObject integer(long value) throws JSONException {
+        // int64 values travel as strings in the REST API
+        return new JSONObject().put("integerValue", Long.toString(value));
+    }
+
+    private static JSONObject timestamp(long epochMillis) throws JSONException {
+        return new JSONObject().put("timestampValue", Instant.ofEpochMilli(epochMillis).toString());
+    }
+
+    private static JSONObject array(String... values) throws JSONException {
+        JSONArray items = new JSONArray();
+        for (String value : values) {
+            items.put(string(value));
+        }
+        return new JSONObject().put("arrayValue", new JSONObject().put("values", items));
+    }
+
+    private static JSONObject map(JSONObject fields) throws JSONException {
+        return new JSONObject().put("mapValue", new JSONObject().put("fields", fields));
+    }
+
+    private static JSONObject request(String method, String url, JSONObject body) throws IOException, JSONException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setRequestMethod(method);
+            // Lets the Firestore emulator write past the security rules
+            connection.setRequestProperty("Authorization", "Bearer owner");
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.toString().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            String response = in != null ? readFully(in) : "";
+            if (status >= 400) {
+                throw new IOException(method + " " + url + " failed with " + status + ": " + response);
+            }
+            return response.isEmpty() ? new JSONObject() : new JSONObject(response);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString(StandardCharsets.UTF_8.name());
+        }
+    }
+}
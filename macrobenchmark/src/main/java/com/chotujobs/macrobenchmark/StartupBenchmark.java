@@ -0,0 +1,75 @@
+package com.chotujobs.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Signed-in startup from LoginActivity to the first rendered job list: JobsListFragment for a
+ * labourer, ContractorFragment for a contractor. Both fragments call reportFullyDrawn once the
+ * list is on screen, so timeToFullDisplayMs is reported alongside timeToInitialDisplayMs.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void seedEmulators() throws Exception {
+        EmulatorFixtures.seed();
+    }
+
+    @Test
+    public void labourerColdStart() throws Exception {
+        startup(EmulatorFixtures.LABOURER_EMAIL, StartupMode.COLD);
+    }
+
+    @Test
+    public void labourerWarmStart() throws Exception {
+        startup(EmulatorFixtures.LABOURER_EMAIL, StartupMode.WARM);
+    }
+
+    @Test
+    public void contractorColdStart() throws Exception {
+        startup(EmulatorFixtures.CONTRACTOR_EMAIL, StartupMode.COLD);
+    }
+
+    @Test
+    public void contractorWarmStart() throws Exception {
+        startup(EmulatorFixtures.CONTRACTOR_EMAIL, StartupMode.WARM);
+    }
+
+    private void startup(String email, StartupMode startupMode) throws Exception {
+        AppFlows.signIn(email);
+        // No baseline profile ships yet, so measure what users get on first install
+        benchmarkRule.measureRepeated(
+                AppFlows.PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                new CompilationMode.None(),
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    AppFlows.waitForJobList(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
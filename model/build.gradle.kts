@@ -0,0 +1,27 @@
+plugins {
+    alias(libs.plugins.android.library)
+}
+
+// Firestore models, their hand-written codecs and the job feed filter, shared by :app, :benchmark
+// and :macrobenchmark
+android {
+    namespace = "com.chotujobs.models"
+    compileSdk = 36
+
+    defaultConfig {
+        minSdk = 28
+        consumerProguardFiles("consumer-rules.pro")
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_17
+        targetCompatibility = JavaVersion.VERSION_17
+    }
+}
+
+dependencies {
+    api(platform("com.google.firebase:firebase-bom:33.1.2"))
+    api("com.google.firebase:firebase-firestore")
+
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,3 @@
+# Models can still be mapped reflectively with DocumentSnapshot.toObject, which needs
+# their no-arg constructors, getters and setters under their original names
+-keep class com.chotujobs.models.** { *; }
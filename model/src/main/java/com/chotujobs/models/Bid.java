@@ -3,10 +3,13 @@ package com.chotujobs.models;
 import android.os.Parcel;
 import android.os.Parcelable;
 
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.Exclude;
 import com.google.firebase.firestore.IgnoreExtraProperties;
 import com.google.firebase.firestore.ServerTimestamp;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 @IgnoreExtraProperties
 public class Bid implements Parcelable {
@@ -21,6 +24,36 @@ public class Bid implements Parcelable {
 
     public Bid() {}
 
+    // Null for a missing document; the bid id is the document id
+    public static Bid fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    public static Bid fromMap(String bidId, Map<String, Object> data) {
+        Bid bid = new Bid();
+        bid.bidId = bidId;
+        bid.jobId = FirestoreFields.string(data, "jobId");
+        bid.bidderId = FirestoreFields.string(data, "bidderId");
+        bid.bidAmount = FirestoreFields.doubleValue(data, "bidAmount");
+        bid.labourerIdIfAgent = FirestoreFields.string(data, "labourerIdIfAgent");
+        bid.status = FirestoreFields.string(data, "status");
+        bid.timestamp = FirestoreFields.date(data, "timestamp");
+        return bid;
+    }
+
+    // The bid id is the document id, so it is not stored as a field
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("jobId", jobId);
+        data.put("bidderId", bidderId);
+        data.put("bidAmount", bidAmount);
+        data.put("labourerIdIfAgent", labourerIdIfAgent);
+        data.put("status", status);
+        data.put("timestamp", FirestoreFields.serverTimestampIfNull(timestamp));
+        return data;
+    }
+
     protected Bid(Parcel in) {
         bidId = in.readString();
         jobId = in.readString();
@@ -0,0 +1,126 @@
+package com.chotujobs.models;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Exclude;
+import com.google.firebase.firestore.ServerTimestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class Chat {
+    private String chatId;
+    private List<String> userIds;
+    private String lastMessage;
+    private @ServerTimestamp Date lastMessageTimestamp;
+    private Map<String, ChatParticipant> participants; // keyed by userId
+    private Map<String, Long> unreadCounts; // keyed by userId: messages that user has not opened yet
+
+    public Chat() {}
+
+    // Null for a missing document; the chat id is the document id
+    public static Chat fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    public static Chat fromMap(String chatId, Map<String, Object> data) {
+        Chat chat = new Chat();
+        chat.chatId = chatId;
+        chat.userIds = FirestoreFields.stringList(data, "userIds");
+        chat.lastMessage = FirestoreFields.string(data, "lastMessage");
+        chat.lastMessageTimestamp = FirestoreFields.date(data, "lastMessageTimestamp");
+        Map<String, Object> participantData = FirestoreFields.map(data.get("participants"));
+        if (participantData != null) {
+            chat.participants = new HashMap<>();
+            for (Map.Entry<String, Object> entry : participantData.entrySet()) {
+                Map<String, Object> participant = FirestoreFields.map(entry.getValue());
+                if (participant != null) {
+                    chat.participants.put(entry.getKey(), ChatParticipant.fromMap(participant));
+                }
+            }
+        }
+        Map<String, Object> unreadData = FirestoreFields.map(data.get("unreadCounts"));
+        if (unreadData != null) {
+            chat.unreadCounts = new HashMap<>();
+            for (Map.Entry<String, Object> entry : unreadData.entrySet()) {
+                if (entry.getValue() instanceof Number) {
+                    chat.unreadCounts.put(entry.getKey(), ((Number) entry.getValue()).longValue());
+                }
+            }
+        }
+        return chat;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("chatId", chatId);
+        data.put("userIds", userIds);
+        data.put("lastMessage", lastMessage);
+        data.put("lastMessageTimestamp", FirestoreFields.serverTimestampIfNull(lastMessageTimestamp));
+        Map<String, Object> participantData = null;
+        if (participants != null) {
+            participantData = new HashMap<>();
+            for (Map.Entry<String, ChatParticipant> entry : participants.entrySet()) {
+                participantData.put(entry.getKey(), entry.getValue() != null ? entry.getValue().toMap() : null);
+            }
+        }
+        data.put("participants", participantData);
+        data.put("unreadCounts", unreadCounts);
+        return data;
+    }
+
+    public String getChatId() {
+        return chatId;
+    }
+
+    public void setChatId(String chatId) {
+        this.chatId = chatId;
+    }
+
+    public List<String> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<String> userIds) {
+        this.userIds = userIds;
+    }
+
+    public String getLastMessage() {
+        return lastMessage;
+    }
+
+    public void setLastMessage(String lastMessage) {
+        this.lastMessage = lastMessage;
+    }
+
+    public Date getLastMessageTimestamp() {
+        return lastMessageTimestamp;
+    }
+
+    public void setLastMessageTimestamp(Date lastMessageTimestamp) {
+        this.lastMessageTimestamp = lastMessageTimestamp;
+    }
+
+    public Map<String, ChatParticipant> getParticipants() {
+        return participants;
+    }
+
+    public void setParticipants(Map<String, ChatParticipant> participants) {
+        this.participants = participants;
+    }
+
+    public Map<String, Long> getUnreadCounts() {
+        return unreadCounts;
+    }
+
+    public void setUnreadCounts(Map<String, Long> unreadCounts) {
+        this.unreadCounts = unreadCounts;
+    }
+
+    @Exclude
+    public long getUnreadCount(String userId) {
+        Long count = unreadCounts != null && userId != null ? unreadCounts.get(userId) : null;
+        return count != null ? Math.max(0, count) : 0;
+    }
+}
@@ -0,0 +1,79 @@
+package com.chotujobs.models;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Compact copy of a user's profile stored on chat documents so the chat list renders without profile reads
+public class ChatParticipant {
+    private String name;
+    private String profileImageUrl;
+    private String role;
+
+    public ChatParticipant() {}
+
+    public ChatParticipant(String name, String profileImageUrl, String role) {
+        this.name = name;
+        this.profileImageUrl = profileImageUrl;
+        this.role = role;
+    }
+
+    // Chat lists only ever show a small avatar, so the thumbnail is stored when there is one
+    public static ChatParticipant fromUser(User user) {
+        String avatarUrl = user.getProfileThumbnailUrl() != null ? user.getProfileThumbnailUrl() : user.getProfileImageUrl();
+        return new ChatParticipant(user.getName(), avatarUrl, user.getRole());
+    }
+
+    public static ChatParticipant fromMap(Map<String, Object> data) {
+        return new ChatParticipant(FirestoreFields.string(data, "name"),
+                FirestoreFields.string(data, "profileImageUrl"),
+                FirestoreFields.string(data, "role"));
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", name);
+        data.put("profileImageUrl", profileImageUrl);
+        data.put("role", role);
+        return data;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getProfileImageUrl() {
+        return profileImageUrl;
+    }
+
+    public void setProfileImageUrl(String profileImageUrl) {
+        this.profileImageUrl = profileImageUrl;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChatParticipant)) return false;
+        ChatParticipant that = (ChatParticipant) o;
+        return Objects.equals(name, that.name)
+                && Objects.equals(profileImageUrl, that.profileImageUrl)
+                && Objects.equals(role, that.role);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, profileImageUrl, role);
+    }
+}
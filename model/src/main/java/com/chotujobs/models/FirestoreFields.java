@@ -0,0 +1,75 @@
+package com.chotujobs.models;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.FieldValue;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed reads from a Firestore document map for the hand-written model codecs. A field of the
+ * wrong type reads as absent instead of failing the whole document, and numbers are converted
+ * between int, long and double the way the reflective mapper would.
+ */
+final class FirestoreFields {
+
+    private FirestoreFields() {}
+
+    static String string(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof String ? (String) value : null;
+    }
+
+    static int intValue(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    static double doubleValue(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    static Double boxedDouble(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+
+    // Also accepts a Firestore timestamp, for documents written with a server time
+    static Long epochMillis(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        if (value instanceof Number) return ((Number) value).longValue();
+        if (value instanceof Timestamp) return ((Timestamp) value).toDate().getTime();
+        return null;
+    }
+
+    static Date date(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        if (value instanceof Timestamp) return ((Timestamp) value).toDate();
+        if (value instanceof Date) return (Date) value;
+        return null;
+    }
+
+    static List<String> stringList(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        if (!(value instanceof List)) return null;
+        List<String> strings = new ArrayList<>(((List<?>) value).size());
+        for (Object item : (List<?>) value) {
+            if (item instanceof String) {
+                strings.add((String) item);
+            }
+        }
+        return strings;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> map(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    // What @ServerTimestamp does: an unset date asks the server to fill it in
+    static Object serverTimestampIfNull(Date date) {
+        return date != null ? date : FieldValue.serverTimestamp();
+    }
+}
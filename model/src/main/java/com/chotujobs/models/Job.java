@@ -0,0 +1,282 @@
+package com.chotujobs.models;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Exclude;
+import com.google.firebase.firestore.IgnoreExtraProperties;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@IgnoreExtraProperties
+public class Job {
+    private String jobId;
+    private String contractorId;
+    private String title;
+    private String category;
+    private String startDate;
+    private String location; // Changed from GeoPoint to String
+    private String imageUrl; // nullable - local path
+    private String thumbnailUrl; // nullable - small variant of imageUrl for lists
+    private String status; // "active" or "closed"
+    private String winnerUserId; // ID of the winning labourer/agent
+    private Long timestamp; // stored as milliseconds since epoch
+    private String requirements;
+    private int bidLimit;
+    private List<String> locationKeys; // normalized location parts, for filtering
+    private String budgetBand; // JobFilter.BudgetBand name derived from bidLimit
+    private Double latitude; // nullable - only set when the location could be geocoded
+    private Double longitude;
+    private String geohash; // derived from latitude/longitude, for nearby queries
+    // Bid aggregates, maintained in the same write as every bid change
+    private int bidCount;
+    private int pendingBidCount;
+    private Double minBidAmount; // null until the first bid
+    private Date lastBidAt;
+
+    // Required public no-arg constructor
+    public Job() {}
+
+    // Null for a missing document; the job id is the document id
+    public static Job fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    public static Job fromMap(String jobId, Map<String, Object> data) {
+        Job job = new Job();
+        job.jobId = jobId;
+        job.contractorId = FirestoreFields.string(data, "contractorId");
+        job.title = FirestoreFields.string(data, "title");
+        job.category = FirestoreFields.string(data, "category");
+        job.startDate = FirestoreFields.string(data, "startDate");
+        job.location = FirestoreFields.string(data, "location");
+        job.imageUrl = FirestoreFields.string(data, "imageUrl");
+        job.thumbnailUrl = FirestoreFields.string(data, "thumbnailUrl");
+        job.status = FirestoreFields.string(data, "status");
+        job.winnerUserId = FirestoreFields.string(data, "winnerUserId");
+        job.timestamp = FirestoreFields.epochMillis(data, "timestamp");
+        job.requirements = FirestoreFields.string(data, "requirements");
+        job.bidLimit = FirestoreFields.intValue(data, "bidLimit");
+        job.locationKeys = FirestoreFields.stringList(data, "locationKeys");
+        job.budgetBand = FirestoreFields.string(data, "budgetBand");
+        job.latitude = FirestoreFields.boxedDouble(data, "latitude");
+        job.longitude = FirestoreFields.boxedDouble(data, "longitude");
+        job.geohash = FirestoreFields.string(data, "geohash");
+        job.bidCount = FirestoreFields.intValue(data, "bidCount");
+        job.pendingBidCount = FirestoreFields.intValue(data, "pendingBidCount");
+        job.minBidAmount = FirestoreFields.boxedDouble(data, "minBidAmount");
+        job.lastBidAt = FirestoreFields.date(data, "lastBidAt");
+        return job;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("jobId", jobId);
+        data.put("contractorId", contractorId);
+        data.put("title", title);
+        data.put("category", category);
+        data.put("startDate", startDate);
+        data.put("location", location);
+        data.put("imageUrl", imageUrl);
+        data.put("thumbnailUrl", thumbnailUrl);
+        data.put("status", status);
+        data.put("winnerUserId", winnerUserId);
+        data.put("timestamp", timestamp);
+        data.put("requirements", requirements);
+        data.put("bidLimit", bidLimit);
+        data.put("locationKeys", locationKeys);
+        data.put("budgetBand", budgetBand);
+        data.put("latitude", latitude);
+        data.put("longitude", longitude);
+        data.put("geohash", geohash);
+        data.put("bidCount", bidCount);
+        data.put("pendingBidCount", pendingBidCount);
+        data.put("minBidAmount", minBidAmount);
+        data.put("lastBidAt", lastBidAt);
+        return data;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getContractorId() {
+        return contractorId;
+    }
+
+    public void setContractorId(String contractorId) {
+        this.contractorId = contractorId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getWinnerUserId() {
+        return winnerUserId;
+    }
+
+    public void setWinnerUserId(String winnerUserId) {
+        this.winnerUserId = winnerUserId;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    // Main setter for Firestore
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+
+    @Exclude
+    public Date getTimestampAsDate() {
+        return (timestamp != null) ? new Date(timestamp) : null;
+    }
+
+    public String getRequirements() {
+        return requirements;
+    }
+
+    public void setRequirements(String requirements) {
+        this.requirements = requirements;
+    }
+
+    public int getBidLimit() {
+        return bidLimit;
+    }
+
+    public void setBidLimit(int bidLimit) {
+        this.bidLimit = bidLimit;
+    }
+
+    public List<String> getLocationKeys() {
+        return locationKeys;
+    }
+
+    public void setLocationKeys(List<String> locationKeys) {
+        this.locationKeys = locationKeys;
+    }
+
+    public String getBudgetBand() {
+        return budgetBand;
+    }
+
+    public void setBudgetBand(String budgetBand) {
+        this.budgetBand = budgetBand;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public String getGeohash() {
+        return geohash;
+    }
+
+    public void setGeohash(String geohash) {
+        this.geohash = geohash;
+    }
+
+    public int getBidCount() {
+        return bidCount;
+    }
+
+    public void setBidCount(int bidCount) {
+        this.bidCount = bidCount;
+    }
+
+    public int getPendingBidCount() {
+        return pendingBidCount;
+    }
+
+    public void setPendingBidCount(int pendingBidCount) {
+        this.pendingBidCount = pendingBidCount;
+    }
+
+    public Double getMinBidAmount() {
+        return minBidAmount;
+    }
+
+    public void setMinBidAmount(Double minBidAmount) {
+        this.minBidAmount = minBidAmount;
+    }
+
+    public Date getLastBidAt() {
+        return lastBidAt;
+    }
+
+    public void setLastBidAt(Date lastBidAt) {
+        this.lastBidAt = lastBidAt;
+    }
+}
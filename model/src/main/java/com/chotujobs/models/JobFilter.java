@@ -0,0 +1,202 @@
+package com.chotujobs.models;
+
+import com.google.firebase.firestore.Query;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Server-side filter for the active job feed. Every field maps to an equality, array-contains
+ * or whereIn clause so the feed keeps its timestamp ordering and cursors; the matching composite
+ * indexes are declared in firestore.indexes.json.
+ */
+public final class JobFilter {
+
+    public static final JobFilter NONE = new Builder().build();
+
+    // Categories a job can be posted under, stored on each job as Job.category
+    public static final List<String> CATEGORIES = Collections.unmodifiableList(Arrays.asList(
+            "Construction", "Electricity", "Plumbing", "Painting", "Carpentry", "Other"));
+
+    // Budget ranges over Job.bidLimit, stored on each job as Job.budgetBand
+    public enum BudgetBand {
+        NOT_SET("No amount", 0, 0),
+        UNDER_1K("Under 1,000", 1, 999),
+        FROM_1K_TO_5K("1,000 - 4,999", 1000, 4999),
+        FROM_5K_TO_20K("5,000 - 19,999", 5000, 19999),
+        OVER_20K("20,000+", 20000, Integer.MAX_VALUE);
+
+        private final String label;
+        private final int min;
+        private final int max;
+
+        BudgetBand(String label, int min, int max) {
+            this.label = label;
+            this.min = min;
+            this.max = max;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static BudgetBand forAmount(int bidLimit) {
+            for (BudgetBand band : values()) {
+                if (bidLimit >= band.min && bidLimit <= band.max) {
+                    return band;
+                }
+            }
+            return NOT_SET;
+        }
+
+        // Every band overlapping [min, max]; the range is widened to band edges
+        public static Set<BudgetBand> overlapping(int min, int max) {
+            Set<BudgetBand> bands = EnumSet.noneOf(BudgetBand.class);
+            if (min > max) {
+                return bands;
+            }
+            for (BudgetBand band : values()) {
+                if (band.max >= min && band.min <= max) {
+                    bands.add(band);
+                }
+            }
+            return bands;
+        }
+    }
+
+    private final String category;
+    private final String locationKey;
+    private final Set<BudgetBand> budgetBands;
+
+    private JobFilter(Builder builder) {
+        this.category = builder.category;
+        this.locationKey = builder.locationKey;
+        this.budgetBands = EnumSet.copyOf(builder.budgetBands);
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getLocationKey() {
+        return locationKey;
+    }
+
+    public Set<BudgetBand> getBudgetBands() {
+        return budgetBands;
+    }
+
+    public boolean isEmpty() {
+        return category == null && locationKey == null && budgetBands.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof JobFilter)) return false;
+        JobFilter that = (JobFilter) o;
+        return Objects.equals(category, that.category)
+                && Objects.equals(locationKey, that.locationKey)
+                && budgetBands.equals(that.budgetBands);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(category, locationKey, budgetBands);
+    }
+
+    Query apply(Query query) {
+        if (category != null) {
+            query = query.whereEqualTo("category", category);
+        }
+        if (locationKey != null) {
+            query = query.whereArrayContains("locationKeys", locationKey);
+        }
+        // Every band selected is the same as no band filter, and skips the whereIn
+        if (!budgetBands.isEmpty() && budgetBands.size() < BudgetBand.values().length) {
+            List<String> bands = new ArrayList<>();
+            for (BudgetBand band : budgetBands) {
+                bands.add(band.name());
+            }
+            query = query.whereIn("budgetBand", bands);
+        }
+        return query;
+    }
+
+    // Lower case with single spaces, and comma separated parts joined by ", " with empty parts
+    // dropped, so "Andheri West ,Mumbai" and "andheri west, mumbai" give the same key
+    public static String normalizeLocation(String location) {
+        if (location == null) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder();
+        for (String part : location.toLowerCase(Locale.ROOT).split(",")) {
+            String words = part.trim().replaceAll("\\s+", " ");
+            if (words.isEmpty()) {
+                continue;
+            }
+            if (normalized.length() > 0) {
+                normalized.append(", ");
+            }
+            normalized.append(words);
+        }
+        return normalized.length() == 0 ? null : normalized.toString();
+    }
+
+    /**
+     * Keys a job can be found under: the whole normalized location and each comma separated part,
+     * so "Kothrud, Pune" matches a search for "Pune" as well as for "Kothrud, Pune".
+     */
+    public static List<String> locationKeys(String location) {
+        List<String> keys = new ArrayList<>();
+        String full = normalizeLocation(location);
+        if (full == null) {
+            return keys;
+        }
+        keys.add(full);
+        for (String part : full.split(",")) {
+            String key = normalizeLocation(part);
+            if (key != null && !keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    public static class Builder {
+        private String category;
+        private String locationKey;
+        private final Set<BudgetBand> budgetBands = EnumSet.noneOf(BudgetBand.class);
+
+        public Builder category(String category) {
+            this.category = category != null && !category.trim().isEmpty() ? category.trim() : null;
+            return this;
+        }
+
+        public Builder location(String location) {
+            this.locationKey = normalizeLocation(location);
+            return this;
+        }
+
+        public Builder budgetBand(BudgetBand band) {
+            if (band != null) {
+                budgetBands.add(band);
+            }
+            return this;
+        }
+
+        public Builder budgetRange(int min, int max) {
+            budgetBands.addAll(BudgetBand.overlapping(min, max));
+            return this;
+        }
+
+        public JobFilter build() {
+            return new JobFilter(this);
+        }
+    }
+}
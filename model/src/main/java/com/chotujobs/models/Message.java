@@ -0,0 +1,114 @@
+package com.chotujobs.models;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Exclude;
+import com.google.firebase.firestore.ServerTimestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+public class Message {
+    private String messageId;
+    private String senderId;
+    private String receiverId;
+    private String message;
+    private @ServerTimestamp Date timestamp;
+    @Exclude
+    private boolean pending; // still in the local outbox, not yet written to Firestore
+    @Exclude
+    private boolean failed; // refused by Firestore; stays in the outbox until retried or discarded
+
+    public Message() {}
+
+    public Message(String senderId, String receiverId, String message) {
+        this.senderId = senderId;
+        this.receiverId = receiverId;
+        this.message = message;
+    }
+
+    // Null for a missing document; the message id is the document id
+    public static Message fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    public static Message fromMap(String messageId, Map<String, Object> data) {
+        Message message = new Message();
+        message.messageId = messageId;
+        message.senderId = FirestoreFields.string(data, "senderId");
+        message.receiverId = FirestoreFields.string(data, "receiverId");
+        message.message = FirestoreFields.string(data, "message");
+        message.timestamp = FirestoreFields.date(data, "timestamp");
+        return message;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("messageId", messageId);
+        data.put("senderId", senderId);
+        data.put("receiverId", receiverId);
+        data.put("message", message);
+        data.put("timestamp", FirestoreFields.serverTimestampIfNull(timestamp));
+        return data;
+    }
+
+    public String getSenderId() {
+        return senderId;
+    }
+
+    public void setSenderId(String senderId) {
+        this.senderId = senderId;
+    }
+
+    public String getReceiverId() {
+        return receiverId;
+    }
+
+    public void setReceiverId(String receiverId) {
+        this.receiverId = receiverId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(String messageId) {
+        this.messageId = messageId;
+    }
+
+    @Exclude
+    public boolean isPending() {
+        return pending;
+    }
+
+    @Exclude
+    public void setPending(boolean pending) {
+        this.pending = pending;
+    }
+
+    @Exclude
+    public boolean isFailed() {
+        return failed;
+    }
+
+    @Exclude
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+}
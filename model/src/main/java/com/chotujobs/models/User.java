@@ -2,8 +2,11 @@ package com.chotujobs.models;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.IgnoreExtraProperties;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @IgnoreExtraProperties
 public class User implements Parcelable {
@@ -16,6 +19,7 @@ public class User implements Parcelable {
     private String address;
     private int yearsOfExperience;
     private String profileImageUrl;
+    private String profileThumbnailUrl; // small variant of profileImageUrl for avatars
 
     public User() {}
 
@@ -31,6 +35,42 @@ public class User implements Parcelable {
         this.role = role;
     }
 
+    // Null for a missing document; the user id is the document id
+    public static User fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    public static User fromMap(String userId, Map<String, Object> data) {
+        User user = new User();
+        user.userId = userId;
+        user.name = FirestoreFields.string(data, "name");
+        user.email = FirestoreFields.string(data, "email");
+        user.phone = FirestoreFields.string(data, "phone");
+        user.role = FirestoreFields.string(data, "role");
+        user.skills = FirestoreFields.stringList(data, "skills");
+        user.address = FirestoreFields.string(data, "address");
+        user.yearsOfExperience = FirestoreFields.intValue(data, "yearsOfExperience");
+        user.profileImageUrl = FirestoreFields.string(data, "profileImageUrl");
+        user.profileThumbnailUrl = FirestoreFields.string(data, "profileThumbnailUrl");
+        return user;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", userId);
+        data.put("name", name);
+        data.put("email", email);
+        data.put("phone", phone);
+        data.put("role", role);
+        data.put("skills", skills);
+        data.put("address", address);
+        data.put("yearsOfExperience", yearsOfExperience);
+        data.put("profileImageUrl", profileImageUrl);
+        data.put("profileThumbnailUrl", profileThumbnailUrl);
+        return data;
+    }
+
     protected User(Parcel in) {
         userId = in.readString();
         name = in.readString();
@@ -41,6 +81,7 @@ public class User implements Parcelable {
         address = in.readString();
         yearsOfExperience = in.readInt();
         profileImageUrl = in.readString();
+        profileThumbnailUrl = in.readString();
     }
 
     @Override
@@ -54,6 +95,7 @@ public class User implements Parcelable {
         dest.writeString(address);
         dest.writeInt(yearsOfExperience);
         dest.writeString(profileImageUrl);
+        dest.writeString(profileThumbnailUrl);
     }
 
     @Override
@@ -149,4 +191,12 @@ public class User implements Parcelable {
     public void setProfileImageUrl(String profileImageUrl) {
         this.profileImageUrl = profileImageUrl;
     }
+
+    public String getProfileThumbnailUrl() {
+        return profileThumbnailUrl;
+    }
+
+    public void setProfileThumbnailUrl(String profileThumbnailUrl) {
+        this.profileThumbnailUrl = profileThumbnailUrl;
+    }
 }
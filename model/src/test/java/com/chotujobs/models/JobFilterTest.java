@@ -0,0 +1,131 @@
+package com.chotujobs.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.chotujobs.models.JobFilter.BudgetBand;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+public class JobFilterTest {
+
+    @Test
+    public void forAmount_mapsBandEdges() {
+        assertEquals(BudgetBand.NOT_SET, BudgetBand.forAmount(0));
+        assertEquals(BudgetBand.UNDER_1K, BudgetBand.forAmount(1));
+        assertEquals(BudgetBand.UNDER_1K, BudgetBand.forAmount(999));
+        assertEquals(BudgetBand.FROM_1K_TO_5K, BudgetBand.forAmount(1000));
+        assertEquals(BudgetBand.FROM_1K_TO_5K, BudgetBand.forAmount(4999));
+        assertEquals(BudgetBand.FROM_5K_TO_20K, BudgetBand.forAmount(5000));
+        assertEquals(BudgetBand.FROM_5K_TO_20K, BudgetBand.forAmount(19999));
+        assertEquals(BudgetBand.OVER_20K, BudgetBand.forAmount(20000));
+        assertEquals(BudgetBand.OVER_20K, BudgetBand.forAmount(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void forAmount_negativeIsNotSet() {
+        assertEquals(BudgetBand.NOT_SET, BudgetBand.forAmount(-1));
+        assertEquals(BudgetBand.NOT_SET, BudgetBand.forAmount(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void overlapping_widensToBandEdges() {
+        assertEquals(EnumSet.of(BudgetBand.FROM_1K_TO_5K, BudgetBand.FROM_5K_TO_20K),
+                BudgetBand.overlapping(1500, 6000));
+        assertEquals(EnumSet.of(BudgetBand.FROM_5K_TO_20K), BudgetBand.overlapping(5000, 19999));
+        assertEquals(EnumSet.of(BudgetBand.OVER_20K), BudgetBand.overlapping(25000, Integer.MAX_VALUE));
+        assertEquals(EnumSet.of(BudgetBand.NOT_SET), BudgetBand.overlapping(0, 0));
+    }
+
+    @Test
+    public void overlapping_emptyRangeMatchesNothing() {
+        assertTrue(BudgetBand.overlapping(6000, 5000).isEmpty());
+    }
+
+    @Test
+    public void normalizeLocation_trimsLowercasesAndCollapsesWhitespace() {
+        assertEquals("kothrud, pune", JobFilter.normalizeLocation("  Kothrud,   PUNE "));
+        assertEquals("navi mumbai", JobFilter.normalizeLocation("Navi\t\nMumbai"));
+    }
+
+    @Test
+    public void normalizeLocation_canonicalizesCommaSpacing() {
+        assertEquals("andheri west, mumbai", JobFilter.normalizeLocation("Andheri West ,Mumbai"));
+        assertEquals("andheri west, mumbai", JobFilter.normalizeLocation("andheri west,  mumbai,"));
+        assertEquals(JobFilter.normalizeLocation("Kothrud,Pune"), JobFilter.normalizeLocation("Kothrud , Pune"));
+    }
+
+    @Test
+    public void normalizeLocation_blankIsNull() {
+        assertNull(JobFilter.normalizeLocation(null));
+        assertNull(JobFilter.normalizeLocation(""));
+        assertNull(JobFilter.normalizeLocation("   "));
+        assertNull(JobFilter.normalizeLocation(" , ,"));
+    }
+
+    @Test
+    public void locationKeys_fullLocationFirstThenEachPart() {
+        assertEquals(Arrays.asList("kothrud, pune", "kothrud", "pune"), JobFilter.locationKeys("Kothrud, Pune"));
+        assertEquals(Arrays.asList("andheri west, mumbai", "andheri west", "mumbai"),
+                JobFilter.locationKeys(" Andheri  West ,Mumbai"));
+    }
+
+    @Test
+    public void locationKeys_singlePartIsNotDuplicated() {
+        assertEquals(Collections.singletonList("pune"), JobFilter.locationKeys("Pune"));
+        assertEquals(Arrays.asList("pune, pune", "pune"), JobFilter.locationKeys("Pune, pune"));
+    }
+
+    @Test
+    public void locationKeys_skipsEmptyParts() {
+        assertEquals(Arrays.asList("andheri, mumbai", "andheri", "mumbai"), JobFilter.locationKeys("Andheri,, Mumbai"));
+        assertTrue(JobFilter.locationKeys(",").isEmpty());
+        assertTrue(JobFilter.locationKeys(null).isEmpty());
+        assertTrue(JobFilter.locationKeys("  ").isEmpty());
+    }
+
+    @Test
+    public void builderLocation_matchesStoredKeys() {
+        // A search for any part of a job's location, typed loosely, hits one of its stored keys
+        String stored = "Kothrud, Pune";
+        assertTrue(JobFilter.locationKeys(stored).contains(new JobFilter.Builder().location(" PUNE ").build().getLocationKey()));
+        assertTrue(JobFilter.locationKeys(stored).contains(new JobFilter.Builder().location("kothrud,  pune").build().getLocationKey()));
+    }
+
+    @Test
+    public void builder_blankFieldsLeaveFilterEmpty() {
+        JobFilter filter = new JobFilter.Builder()
+                .category("  ")
+                .location(" ")
+                .budgetBand(null)
+                .build();
+        assertTrue(filter.isEmpty());
+        assertNull(filter.getCategory());
+        assertNull(filter.getLocationKey());
+        assertEquals(JobFilter.NONE, filter);
+    }
+
+    @Test
+    public void builder_budgetRangeAddsOverlappingBands() {
+        JobFilter filter = new JobFilter.Builder().budgetRange(900, 1200).build();
+        assertFalse(filter.isEmpty());
+        assertEquals(EnumSet.of(BudgetBand.UNDER_1K, BudgetBand.FROM_1K_TO_5K), filter.getBudgetBands());
+    }
+
+    @Test
+    public void equalsAndHashCode_useNormalizedValues() {
+        JobFilter a = new JobFilter.Builder().category(" Painting ").location("Pune ").budgetBand(BudgetBand.OVER_20K).build();
+        JobFilter b = new JobFilter.Builder().category("Painting").location("pune").budgetBand(BudgetBand.OVER_20K).build();
+        JobFilter c = new JobFilter.Builder().category("Painting").location("pune").build();
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, c);
+    }
+}
@@ -21,4 +21,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "ChotuJobs"
 include(":app")
+include(":model")
+include(":benchmark")
+include(":macrobenchmark")
  
\ No newline at end of file